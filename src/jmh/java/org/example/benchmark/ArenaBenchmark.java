@@ -0,0 +1,57 @@
+package org.example.benchmark;
+
+import org.example.AST.ASTNodeType;
+import org.example.AST.ProgramASTNode;
+import org.example.AstArena;
+import org.example.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The record AST against the flat {@link AstArena}: the cost of building each form, and of visiting
+ * every node of a built arena.
+ * <p>
+ * {@code gc.alloc.rate.norm} of the parse benchmarks shows what each form allocates; the arena
+ * also allocates the records of one statement at a time, which die young. The memory the arena
+ * keeps is {@link AstArena#footprint()}.
+ **/
+@State(Scope.Thread)
+public class ArenaBenchmark {
+
+    private static final Parser PARSER = new Parser();
+
+    @Param
+    BenchmarkCorpus corpus;
+
+    private AstArena arena;
+
+    @Setup
+    public void setup() {
+        arena = PARSER.parseToArena(corpus.program());
+    }
+
+    @Benchmark
+    public ProgramASTNode parseToAst() {
+        return PARSER.parseToAst(corpus.program());
+    }
+
+    @Benchmark
+    public AstArena parseToArena() {
+        return PARSER.parseToArena(corpus.program());
+    }
+
+    /**
+     * Visits every node in pre-order, which for an arena is a scan of its arrays.
+     */
+    @Benchmark
+    public int walkArena() {
+        int identifiers = 0;
+        for (int node = 0; node < arena.size(); node++) {
+            if (arena.kind(node) == ASTNodeType.Identifier) identifiers++;
+        }
+        return identifiers;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.benchmark;
+
+import org.example.batch.BatchParser;
+import org.example.batch.BatchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Throughput of {@link BatchParser} over a batch of 64 programs, for 1 to 8 worker threads.
+ * Comparing the {@code parallelism} rows gives the scaling curve of the host.
+ **/
+@State(Scope.Thread)
+public class BatchParserBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    @Param({"bigClass", "longStatementList"})
+    BenchmarkCorpus corpus;
+
+    private ForkJoinPool pool;
+    private BatchParser batchParser;
+    private List<String> batch;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        batchParser = new BatchParser(pool, parallelism * 2);
+        batch = Collections.nCopies(64, corpus.program());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<BatchResult> parseBatch() {
+        return batchParser.parseSources(batch);
+    }
+}
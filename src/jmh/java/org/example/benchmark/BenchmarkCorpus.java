@@ -0,0 +1,75 @@
+package org.example.benchmark;
+
+import org.example.Main;
+
+/**
+ * Programs of different shapes and sizes that the benchmarks are run against.
+ **/
+public enum BenchmarkCorpus {
+    /**
+     * The sample program printed by {@link Main}.
+     */
+    main(Main.SAMPLE_PROGRAM.trim()),
+
+    /**
+     * One statement made of parenthesised expressions nested 200 deep.
+     */
+    deepExpression(deepExpression(200)),
+
+    /**
+     * A class with 500 methods.
+     */
+    bigClass(bigClass(500)),
+
+    /**
+     * 5000 top-level statements.
+     */
+    longStatementList(longStatementList(5000));
+
+    private final String program;
+
+    BenchmarkCorpus(String program) {
+        this.program = program;
+    }
+
+    public String program() {
+        return program;
+    }
+
+    private static String deepExpression(int depth) {
+        StringBuilder builder = new StringBuilder("x = ");
+        builder.append("(".repeat(depth));
+        builder.append("y");
+        for (int i = 0; i < depth; i++) {
+            builder.append(i % 2 == 0 ? " + " : " * ").append(i).append(")");
+        }
+        return builder.append(";").toString();
+    }
+
+    private static String bigClass(int methods) {
+        StringBuilder builder = new StringBuilder("class Shape extends Point {\n");
+        for (int i = 0; i < methods; i++) {
+            builder.append("  def method").append(i).append("(x, y) {\n")
+                    .append("    let d = x * ").append(i).append(" + y;\n")
+                    .append("    if (d >= this.limit) {\n")
+                    .append("      return new Point(d, y);\n")
+                    .append("    }\n")
+                    .append("    return d;\n")
+                    .append("  }\n");
+        }
+        return builder.append("}").toString();
+    }
+
+    private static String longStatementList(int statements) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < statements; i++) {
+            switch (i % 4) {
+                case 0 -> builder.append("let v").append(i).append(" = ").append(i).append(";\n");
+                case 1 -> builder.append("total += v").append(i - 1).append(" * 2;\n");
+                case 2 -> builder.append("while (total > 100) { total -= 100; }\n");
+                default -> builder.append("console.log[\"step\"];\n");
+            }
+        }
+        return builder.toString().trim();
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.benchmark;
+
+import org.example.AST.ProgramASTNode;
+import org.example.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parsing one program made of many class and function declarations, sequentially and with
+ * {@link Parser#parseParallel(String, ForkJoinPool)} on 1 to 8 worker threads. Dividing
+ * {@code parseToAst} by the {@code parseParallel} rows gives the speedup curve of the host;
+ * {@code parallelism} 1 shows the cost of the extra outline pass.
+ **/
+@State(Scope.Thread)
+public class ParallelParseBenchmark {
+
+    private static final Parser PARSER = new Parser();
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    @Param({"100", "400", "1600"})
+    int declarations;
+
+    private ForkJoinPool pool;
+    private String program;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < declarations; i++) {
+            if (i % 2 == 0) {
+                builder.append("class Shape").append(i).append(" extends Point {\n")
+                        .append("  def area(x) {\n")
+                        .append("    let d = x * ").append(i).append(" + this.y;\n")
+                        .append("    if (d >= this.limit) {\n")
+                        .append("      return new Point(d, x);\n")
+                        .append("    }\n")
+                        .append("    return d;\n")
+                        .append("  }\n")
+                        .append("}\n");
+            } else {
+                builder.append("def step").append(i).append("(total) {\n")
+                        .append("  while (total > 100) {\n")
+                        .append("    total -= ").append(i).append(";\n")
+                        .append("  }\n")
+                        .append("  return total;\n")
+                        .append("}\n");
+            }
+        }
+        program = builder.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ProgramASTNode parseToAst() {
+        return PARSER.parseToAst(program);
+    }
+
+    @Benchmark
+    public ProgramASTNode parseParallel() {
+        return PARSER.parseParallel(program, pool);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.benchmark;
+
+import org.example.AST.ProgramASTNode;
+import org.example.Parser;
+import org.example.cache.ParseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing throughput, both to the AST alone and end to end from source text to JSON.
+ * <p>
+ * All benchmark threads share one {@link Parser}, so running with {@code -t N} shows how parsing
+ * scales across cores.
+ **/
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+    private static final Parser PARSER = new Parser();
+    private static final ParseCache CACHE = new ParseCache(64 << 20);
+
+    @Param
+    BenchmarkCorpus corpus;
+
+    @Benchmark
+    public ProgramASTNode parseToAst() {
+        return PARSER.parseToAst(corpus.program());
+    }
+
+    /**
+     * Only the outline: function bodies are brace matched but not parsed.
+     */
+    @Benchmark
+    public ProgramASTNode parseOutline() {
+        return PARSER.parseOutline(corpus.program());
+    }
+
+    @Benchmark
+    public String parse() {
+        return PARSER.parse(corpus.program());
+    }
+
+    /**
+     * A repeated parse served by {@link ParseCache}: hashing the input and one lookup.
+     */
+    @Benchmark
+    public String parseCached() {
+        return CACHE.parse(corpus.program());
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.benchmark;
+
+import org.example.AST.ProgramASTNode;
+import org.example.Parser;
+import org.example.binary.BinaryAstReader;
+import org.example.binary.BinaryAstWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cost of writing an already parsed program as JSON or in binary, kept apart from lexing and
+ * parsing, and of reading the binary form back.
+ **/
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param
+    BenchmarkCorpus corpus;
+
+    private final Parser parser = new Parser();
+    private final BinaryAstWriter binaryWriter = new BinaryAstWriter();
+    private ProgramASTNode program;
+    private ByteBuffer binary;
+
+    @Setup
+    public void setup() {
+        program = parser.parseToAst(corpus.program());
+        binary = ByteBuffer.wrap(binaryWriter.write(program));
+    }
+
+    @Benchmark
+    public String serialize() {
+        return parser.toJson(program);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binaryWriter.write(program);
+    }
+
+    @Benchmark
+    public ProgramASTNode deserializeBinary() {
+        return new BinaryAstReader(binary).read();
+    }
+}
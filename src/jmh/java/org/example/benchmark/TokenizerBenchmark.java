@@ -0,0 +1,46 @@
+package org.example.benchmark;
+
+import org.example.token.TokenArray;
+import org.example.token.TokenType;
+import org.example.token.Tokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tokenizing throughput, without parsing.
+ **/
+@State(Scope.Thread)
+public class TokenizerBenchmark {
+
+    @Param
+    BenchmarkCorpus corpus;
+
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    @Benchmark
+    public void getNextToken(Blackhole blackhole) {
+        tokenizer.init(corpus.program());
+        while (!tokenizer.isEOF()) {
+            blackhole.consume(tokenizer.getNextToken());
+        }
+    }
+
+    @Benchmark
+    public void peekAndAdvance(Blackhole blackhole) {
+        tokenizer.init(corpus.program());
+        TokenType type;
+        while ((type = tokenizer.peekType()) != null) {
+            blackhole.consume(type);
+            tokenizer.advance();
+        }
+    }
+
+    @Benchmark
+    public TokenArray tokenizeAll() {
+        tokenizer.init(corpus.program());
+        return tokenizer.tokenizeAll();
+    }
+}
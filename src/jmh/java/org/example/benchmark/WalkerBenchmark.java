@@ -0,0 +1,59 @@
+package org.example.benchmark;
+
+import org.example.AST.ASTNode;
+import org.example.AST.ASTNodeType;
+import org.example.AST.ASTVisitor;
+import org.example.AST.ASTWalker;
+import org.example.AST.ProgramASTNode;
+import org.example.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of walking an already parsed program with {@link ASTWalker}, on one thread and in parallel.
+ * A sequential walk should report a {@code gc.alloc.rate.norm} of 0, whatever the program's size.
+ **/
+@State(Scope.Thread)
+public class WalkerBenchmark {
+
+    @Param
+    BenchmarkCorpus corpus;
+
+    private ProgramASTNode program;
+    private final IdentifierCounter counter = new IdentifierCounter();
+
+    @Setup
+    public void setup() {
+        program = new Parser().parseToAst(corpus.program());
+    }
+
+    @Benchmark
+    public int walk() {
+        counter.count = 0;
+        ASTWalker.walk(program, counter);
+        return counter.count;
+    }
+
+    @Benchmark
+    public int walkParallel() {
+        return ASTWalker.walkParallel(program, IdentifierCounter::new, IdentifierCounter::add).count;
+    }
+
+    static class IdentifierCounter implements ASTVisitor {
+        int count;
+
+        @Override
+        public boolean enter(ASTNode node, ASTNode parent) {
+            if (node.type() == ASTNodeType.Identifier) count++;
+            return true;
+        }
+
+        IdentifierCounter add(IdentifierCounter other) {
+            count += other.count;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.AST;
+
+/**
+ * Any node of the AST, so that code handling nodes of every kind, such as {@link ASTVisitor}, has
+ * one type to work with. {@link #type()} tells which record a node is.
+ */
+public sealed interface ASTNode permits
+        ExpressionNode,
+        ProgramASTNode,
+        StatementASTNode,
+        VariableDeclarationNode {
+
+    ASTNodeType type();
+}
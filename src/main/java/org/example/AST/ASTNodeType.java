@@ -35,5 +35,10 @@ public enum ASTNodeType {
     NewExpression,
     ClassDeclaration,
     ThisExpression,
-    Super
+    Super,
+
+    NumericLiteral,
+    StringLiteral,
+    BooleanLiteral,
+    NullLiteral
 }
@@ -0,0 +1,27 @@
+package org.example.AST;
+
+/**
+ * Receives the nodes of an AST walked by {@link ASTWalker}, in pre-order and again in post-order.
+ * <p>
+ * Both hooks get the node and its parent, so a visitor can branch on {@link ASTNode#type()} and
+ * cast, rather than test the node against every record type. Missing optional children, such as
+ * the alternate of an if without else, are not visited.
+ */
+public interface ASTVisitor {
+
+    /**
+     * Called when the walk reaches {@code node}, before its children.
+     *
+     * @param parent the node {@code node} is a child of, or null for the node the walk started at
+     * @return whether to walk {@code node}'s children; returning false prunes the whole subtree
+     */
+    default boolean enter(ASTNode node, ASTNode parent) {
+        return true;
+    }
+
+    /**
+     * Called after {@code node}'s children, or straight after {@link #enter} if they were pruned.
+     */
+    default void exit(ASTNode node, ASTNode parent) {
+    }
+}
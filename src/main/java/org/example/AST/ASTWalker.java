@@ -0,0 +1,223 @@
+package org.example.AST;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Walks an AST depth first, calling an {@link ASTVisitor} on every node.
+ * <p>
+ * The children of a node are visited in the order of its record's components, e.g. test,
+ * consequent and alternate for an if statement, and list elements in list order. The walk switches
+ * on {@link ASTNode#type()} to find them and indexes lists instead of iterating over them, so it
+ * allocates nothing per node. A {@link LazyBlockStatementASTNode} is parsed when the walk reaches
+ * it. The walk recurses, so like {@link org.example.Parser#toJson} it needs a thread stack deep
+ * enough for the tree.
+ * <p>
+ * {@link #walkParallel} walks the bodies of functions, methods included, in fork/join tasks with
+ * visitors of their own, and combines the visitors when the walk is done.
+ */
+public final class ASTWalker {
+
+    // Function bodies walked by one visitor, enough to outweigh the cost of a task
+    private static final int SUBTREES_PER_TASK = 8;
+
+    private ASTWalker() {
+    }
+
+    /**
+     * Walks {@code node} and everything below it.
+     */
+    public static void walk(ASTNode node, ASTVisitor visitor) {
+        walk(node, null, visitor, null);
+    }
+
+    /**
+     * Walks {@code program} in parallel in the common fork/join pool, see
+     * {@link #walkParallel(ProgramASTNode, Supplier, BinaryOperator, ForkJoinPool)}.
+     */
+    public static <V extends ASTVisitor> V walkParallel(ProgramASTNode program, Supplier<V> visitors,
+                                                        BinaryOperator<V> combiner) {
+        return walkParallel(program, visitors, combiner, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Walks {@code program} with several visitors at once.
+     * <p>
+     * Function bodies are not walked by the visitor of the code around them, but in batches by new
+     * visitors from {@code visitors}, in tasks forked in {@code pool}. A function pruned by the
+     * visitor of the enclosing code is skipped as usual. The visitor of a body only sees the body,
+     * with the function declaration as the body's parent, and none of the nodes above it. Each
+     * node is still visited exactly once, so analyses whose results can be added up, such as
+     * counting or collecting nodes, get the same result as from {@link #walk}.
+     * <p>
+     * Unlike {@link #walk}, {@link ASTVisitor#exit} of a function declaration is called before its
+     * body is walked, so a visitor that keeps a stack of scopes in {@code enter} and {@code exit}
+     * does not see the function's scope around its body.
+     *
+     * @param combiner merges the visitor of a function body into the visitor of the code around
+     *                 it and returns the result; the bodies of the functions in a piece of code
+     *                 are merged in the order the functions appear
+     * @return the combination of all visitors
+     */
+    public static <V extends ASTVisitor> V walkParallel(ProgramASTNode program, Supplier<V> visitors,
+                                                        BinaryOperator<V> combiner, ForkJoinPool pool) {
+        return pool.invoke(new WalkTask<>(program, visitors, combiner));
+    }
+
+    private static void walk(ASTNode node, ASTNode parent, ASTVisitor visitor, WalkTask<?> task) {
+        if (node == null) return;
+        if (visitor.enter(node, parent)) {
+            children(node, visitor, task);
+        }
+        visitor.exit(node, parent);
+    }
+
+    private static void children(ASTNode node, ASTVisitor visitor, WalkTask<?> task) {
+        switch (node.type()) {
+            case Program -> walkAll(((ProgramASTNode) node).body(), node, visitor, task);
+            case ExpressionStatement -> walk(((ExpressionStatementASTNode) node).expression(), node, visitor, task);
+            case BlockStatement -> walkAll(node instanceof LazyBlockStatementASTNode lazy
+                    ? lazy.body()
+                    : ((BlockStatementASTNode) node).body(), node, visitor, task);
+            case VariableStatement -> walkAll(((VariableStatementASTNode) node).declarations(), node, visitor, task);
+            case VariableDeclaration -> {
+                VariableDeclarationNode declaration = (VariableDeclarationNode) node;
+                walk(declaration.id(), node, visitor, task);
+                walk(declaration.init(), node, visitor, task);
+            }
+            case ifStatement -> {
+                IfStatementASTNode ifStatement = (IfStatementASTNode) node;
+                walk(ifStatement.test(), node, visitor, task);
+                walk(ifStatement.consequent(), node, visitor, task);
+                walk(ifStatement.alternate(), node, visitor, task);
+            }
+            case WhileStatement, DoWhileStatement -> {
+                IterationStatementASTNode iteration = (IterationStatementASTNode) node;
+                walk(iteration.test(), node, visitor, task);
+                walk(iteration.body(), node, visitor, task);
+            }
+            case ForStatement -> {
+                ForLoopIterationStatementASTNode forStatement = (ForLoopIterationStatementASTNode) node;
+                walk(forStatement.init(), node, visitor, task);
+                walk(forStatement.test(), node, visitor, task);
+                walk(forStatement.update(), node, visitor, task);
+                walk(forStatement.body(), node, visitor, task);
+            }
+            case FunctionDeclaration -> {
+                FunctionDeclarationASTNode function = (FunctionDeclarationASTNode) node;
+                walk(function.name(), node, visitor, task);
+                walkAll(function.params(), node, visitor, task);
+                if (task == null || function.body() == null) {
+                    walk(function.body(), node, visitor, task);
+                } else {
+                    task.split(function.body(), node);
+                }
+            }
+            case ReturnStatement -> walk(((ReturnStatementASTNode) node).argument(), node, visitor, task);
+            case ClassDeclaration -> {
+                ClassDeclarationASTNode classDeclaration = (ClassDeclarationASTNode) node;
+                walk(classDeclaration.id(), node, visitor, task);
+                walk(classDeclaration.superClass(), node, visitor, task);
+                walk(classDeclaration.body(), node, visitor, task);
+            }
+            case AssignmentExpression -> {
+                AssignmentExpressionASTNode assignment = (AssignmentExpressionASTNode) node;
+                walk(assignment.left(), node, visitor, task);
+                walk(assignment.right(), node, visitor, task);
+            }
+            case BinaryExpression, LogicalExpression -> {
+                BinaryExpressionASTNode binary = (BinaryExpressionASTNode) node;
+                walk(binary.left(), node, visitor, task);
+                walk(binary.right(), node, visitor, task);
+            }
+            case UnaryExpression -> walk(((UnaryExpressionASTNode) node).argument(), node, visitor, task);
+            case MemberExpression -> {
+                MemberExpressionASTNode member = (MemberExpressionASTNode) node;
+                walk(member.object(), node, visitor, task);
+                walk(member.property(), node, visitor, task);
+            }
+            case CallExpression, NewExpression -> {
+                if (node instanceof CallExpressionASTNode call) {
+                    walk(call.callee(), node, visitor, task);
+                    walkAll(call.arguments(), node, visitor, task);
+                } else {
+                    NewExpressionASTNode newExpression = (NewExpressionASTNode) node;
+                    walk(newExpression.callee(), node, visitor, task);
+                    walkAll(newExpression.arguments(), node, visitor, task);
+                }
+            }
+            case Identifier, ThisExpression, Super, NumericLiteral, StringLiteral, BooleanLiteral, NullLiteral -> {
+            }
+        }
+    }
+
+    private static void walkAll(List<? extends ASTNode> nodes, ASTNode parent, ASTVisitor visitor, WalkTask<?> task) {
+        for (int i = 0; i < nodes.size(); i++) {
+            walk(nodes.get(i), parent, visitor, task);
+        }
+    }
+
+    /**
+     * Walks the subtrees {@code [from, to)} of {@code nodes}, forking half of them until few enough
+     * are left for one visitor. The function bodies found in them are walked the same way, after them.
+     */
+    private static final class WalkTask<V extends ASTVisitor> extends RecursiveTask<V> {
+        private final List<ASTNode> nodes;
+        private final List<ASTNode> parents;
+        private final int from;
+        private final int to;
+        private final Supplier<V> visitors;
+        private final BinaryOperator<V> combiner;
+        private List<ASTNode> bodies;
+        private List<ASTNode> functions;
+
+        WalkTask(ASTNode node, Supplier<V> visitors, BinaryOperator<V> combiner) {
+            this(List.of(node), Collections.singletonList(null), 0, 1, visitors, combiner);
+        }
+
+        private WalkTask(List<ASTNode> nodes, List<ASTNode> parents, int from, int to,
+                         Supplier<V> visitors, BinaryOperator<V> combiner) {
+            this.nodes = nodes;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+            this.visitors = visitors;
+            this.combiner = combiner;
+        }
+
+        /**
+         * Leaves the body of {@code function} to be walked by other visitors, once this task is done.
+         */
+        void split(ASTNode body, ASTNode function) {
+            if (bodies == null) {
+                bodies = new ArrayList<>();
+                functions = new ArrayList<>();
+            }
+            bodies.add(body);
+            functions.add(function);
+        }
+
+        @Override
+        protected V compute() {
+            if (to - from > SUBTREES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                WalkTask<V> second = new WalkTask<>(nodes, parents, middle, to, visitors, combiner);
+                second.fork();
+                V first = new WalkTask<>(nodes, parents, from, middle, visitors, combiner).compute();
+                return combiner.apply(first, second.join());
+            }
+
+            V visitor = visitors.get();
+            for (int i = from; i < to; i++) {
+                walk(nodes.get(i), parents.get(i), visitor, this);
+            }
+            if (bodies == null) return visitor;
+            return combiner.apply(visitor, new WalkTask<>(bodies, functions, 0, bodies.size(), visitors, combiner).compute());
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package org.example.AST;
 
 public record AssignmentExpressionASTNode(
-        String type,
-        String operator,
+        ASTNodeType type,
+        Operator operator,
         ExpressionNode left,
         ExpressionNode right
 ) implements ExpressionNode {
@@ -1,6 +1,6 @@
 package org.example.AST;
 
 public record BasicExpressionASTNode(
-        String type
+        ASTNodeType type
 ) implements ExpressionNode {
 }
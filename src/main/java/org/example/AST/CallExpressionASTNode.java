@@ -3,7 +3,7 @@ package org.example.AST;
 import java.util.List;
 
 public record CallExpressionASTNode(
-        String type,
+        ASTNodeType type,
         ExpressionNode callee,
         List<ExpressionNode> arguments
 ) implements ExpressionNode {
@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record ClassDeclarationASTNode(
-        String type,
+        ASTNodeType type,
         ExpressionNode id,
         ExpressionNode superClass,
         StatementASTNode body
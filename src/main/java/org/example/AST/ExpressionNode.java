@@ -1,4 +1,13 @@
 package org.example.AST;
 
-public interface ExpressionNode {
+public sealed interface ExpressionNode extends ASTNode permits
+        AssignmentExpressionASTNode,
+        BasicExpressionASTNode,
+        BinaryExpressionASTNode,
+        CallExpressionASTNode,
+        IdentifierExpressionASTNode,
+        LiteralASTNode,
+        MemberExpressionASTNode,
+        NewExpressionASTNode,
+        UnaryExpressionASTNode {
 }
@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record ExpressionStatementASTNode(
-        String type,
+        ASTNodeType type,
         ExpressionNode expression
 ) implements StatementASTNode {
 }
@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record ForLoopIterationStatementASTNode(
-        String type,
+        ASTNodeType type,
         StatementASTNode init,
         ExpressionNode test,
         ExpressionNode update,
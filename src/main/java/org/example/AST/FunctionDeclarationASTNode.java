@@ -3,7 +3,7 @@ package org.example.AST;
 import java.util.List;
 
 public record FunctionDeclarationASTNode(
-        String type,
+        ASTNodeType type,
         ExpressionNode name,
         List<ExpressionNode> params,
         StatementASTNode body
@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record IdentifierExpressionASTNode(
-        String type,
+        ASTNodeType type,
         String name
 ) implements ExpressionNode {
 }
@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record IfStatementASTNode(
-        String type,
+        ASTNodeType type,
         ExpressionNode test,
         StatementASTNode consequent,
         StatementASTNode alternate
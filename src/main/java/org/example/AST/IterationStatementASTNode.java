@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record IterationStatementASTNode(
-        String type,
+        ASTNodeType type,
         ExpressionNode test,
         StatementASTNode body
 ) implements StatementASTNode {
@@ -0,0 +1,98 @@
+package org.example.AST;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.example.Parser;
+
+import java.util.List;
+
+/**
+ * A block statement that has not been parsed yet, only located: the body of a function in a tree
+ * from {@link Parser#parseOutline(String)}.
+ * <p>
+ * The block is parsed from its source text the first time its {@link #body()} or {@link #block()}
+ * is asked for, and then kept. A syntax error in it is only thrown at that point, with its offset in
+ * the whole source. The node can be
+ * shared between threads; a block is parsed at most once, even when several threads ask for it at
+ * the same time.
+ * <p>
+ * It serializes to the same JSON as the {@link BlockStatementASTNode} it stands for, parsing the
+ * block to do so. It is only equal to itself; compare {@link #block()} to compare trees.
+ */
+@JsonPropertyOrder({"type", "body"})
+public final class LazyBlockStatementASTNode implements StatementASTNode {
+
+    private final String source;
+    private final int start;
+    private final int end;
+    private volatile BlockStatementASTNode block;
+
+    /**
+     * A block whose text, braces included, is {@code source[start, end)}.
+     */
+    public LazyBlockStatementASTNode(String source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    @JsonProperty("type")
+    public ASTNodeType type() {
+        return ASTNodeType.BlockStatement;
+    }
+
+    /**
+     * The statements of the block, parsing it if it has not been parsed yet.
+     */
+    @JsonProperty("body")
+    public List<StatementASTNode> body() {
+        return block().body();
+    }
+
+    /**
+     * The parsed block, parsing it if it has not been parsed yet.
+     */
+    public BlockStatementASTNode block() {
+        BlockStatementASTNode parsed = block;
+        if (parsed == null) {
+            synchronized (this) {
+                parsed = block;
+                if (parsed == null) {
+                    parsed = (BlockStatementASTNode) new Parser().parseStatement(source, start, end);
+                    block = parsed;
+                }
+            }
+        }
+        return parsed;
+    }
+
+    @JsonIgnore
+    public boolean isParsed() {
+        return block != null;
+    }
+
+    /**
+     * Offset in the source of the block's opening brace.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Offset in the source just past the block's closing brace.
+     */
+    public int end() {
+        return end;
+    }
+
+    public String text() {
+        return source.substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "LazyBlockStatementASTNode[start=" + start + ", end=" + end + ", parsed=" + isParsed() + "]";
+    }
+}
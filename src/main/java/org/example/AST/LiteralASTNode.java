@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record LiteralASTNode(
-        String type,
+        ASTNodeType type,
         Object value
 ) implements ExpressionNode {
 
@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record MemberExpressionASTNode(
-        String type,
+        ASTNodeType type,
         boolean computed,
         ExpressionNode object,
         ExpressionNode property
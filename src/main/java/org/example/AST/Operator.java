@@ -0,0 +1,45 @@
+package org.example.AST;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Operators of assignment, binary, logical and unary expressions.
+ * <p>
+ * Each operator is rendered in JSON as its {@link #text()}: the source text for most of them, and
+ * the operator's name for the arithmetic binary operators.
+ */
+public enum Operator {
+    Assign("="),
+    AddAssign("+="),
+    MinusAssign("-="),
+    MultiplyAssign("*="),
+    DivideAssign("/="),
+
+    LogicalOr("||"),
+    LogicalAnd("&&"),
+    Equal("=="),
+    Less("<"),
+    LessOrEqual("<="),
+    Greater(">"),
+    GreaterOrEqual(">="),
+
+    Add("Add"),
+    Minus("Minus"),
+    Multiply("Multiply"),
+    Divide("Divide"),
+
+    UnaryPlus("+"),
+    UnaryMinus("-"),
+    Not("!");
+
+    private final String text;
+
+    Operator(String text) {
+        this.text = text;
+    }
+
+    @JsonValue
+    public String text() {
+        return text;
+    }
+}
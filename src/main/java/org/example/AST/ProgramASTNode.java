@@ -3,7 +3,7 @@ package org.example.AST;
 import java.util.List;
 
 public record ProgramASTNode(
-        String type,
+        ASTNodeType type,
         List<StatementASTNode> body
-) {
+) implements ASTNode {
 }
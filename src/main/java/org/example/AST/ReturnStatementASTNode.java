@@ -1,7 +1,7 @@
 package org.example.AST;
 
 public record ReturnStatementASTNode(
-        String type,
+        ASTNodeType type,
         ExpressionNode argument
 ) implements StatementASTNode {
 }
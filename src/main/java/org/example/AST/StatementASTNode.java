@@ -1,5 +1,14 @@
 package org.example.AST;
 
-public interface StatementASTNode {
-
+public sealed interface StatementASTNode extends ASTNode permits
+        BlockStatementASTNode,
+        ClassDeclarationASTNode,
+        ExpressionStatementASTNode,
+        ForLoopIterationStatementASTNode,
+        FunctionDeclarationASTNode,
+        IfStatementASTNode,
+        IterationStatementASTNode,
+        LazyBlockStatementASTNode,
+        ReturnStatementASTNode,
+        VariableStatementASTNode {
 }
@@ -1,8 +1,8 @@
 package org.example.AST;
 
 public record UnaryExpressionASTNode(
-        String type,
-        String operator,
+        ASTNodeType type,
+        Operator operator,
         ExpressionNode argument
 ) implements ExpressionNode{
 }
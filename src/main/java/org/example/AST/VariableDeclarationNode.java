@@ -1,9 +1,9 @@
 package org.example.AST;
 
 public record VariableDeclarationNode(
-        String type,
+        ASTNodeType type,
         IdentifierExpressionASTNode id,
         ExpressionNode init
-) {
+) implements ASTNode {
 
 }
@@ -3,7 +3,7 @@ package org.example.AST;
 import java.util.List;
 
 public record VariableStatementASTNode(
-        String type,
+        ASTNodeType type,
         List<VariableDeclarationNode> declarations
 ) implements StatementASTNode {
 }
@@ -0,0 +1,435 @@
+package org.example;
+
+import org.example.AST.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A whole program's AST stored as parallel primitive arrays instead of one object per node.
+ * <p>
+ * A node is an {@code int} index into the arena. For every node the arena keeps its kind, its first
+ * child, its next sibling, a payload and the span of input it was parsed from; a handful of arrays
+ * hold the entire tree, however many nodes it has. Nodes are stored in pre-order, so a subtree is a
+ * contiguous range and walking it reads the arrays front to back.
+ * <p>
+ * Children keep the order of the corresponding record's components, e.g. test, consequent and
+ * alternate for an if statement. A missing optional child, such as an if without else, is an
+ * absent node whose {@link #kind} is null, so every child keeps its position. Variable-length
+ * children follow the fixed ones: a function declaration's children are its name, its parameters
+ * and, last, its body.
+ * <p>
+ * The payload is an index into the arena's string table for identifiers and literals, the
+ * {@link Operator} of unary, binary, logical and assignment expressions, and 1 for a computed
+ * member expression. Spans are only known for statements; other nodes report -1.
+ * <p>
+ * {@link #statement(int)} and {@link #expression(int)} build the record view of a subtree on demand.
+ */
+public final class AstArena {
+
+    private static final int NONE = -1;
+    private static final byte ABSENT = 0;
+    private static final ASTNodeType[] KINDS = ASTNodeType.values();
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private byte[] kinds;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] payloads;
+    private int[] starts;
+    private int[] ends;
+    private int size;
+    private int lastStatement = NONE;
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+    AstArena(int capacity) {
+        kinds = new byte[capacity];
+        firstChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        payloads = new int[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+        add(ASTNodeType.Program, NONE, NONE, NONE);
+    }
+
+    /**
+     * The program node.
+     */
+    public int root() {
+        return 0;
+    }
+
+    /**
+     * Number of nodes, absent ones included.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The kind of {@code node}, or null if it stands for a missing optional child.
+     */
+    public ASTNodeType kind(int node) {
+        byte kind = kinds[node];
+        return kind == ABSENT ? null : KINDS[kind - 1];
+    }
+
+    /**
+     * The first child of {@code node}, or -1 if it has none.
+     */
+    public int firstChild(int node) {
+        return firstChildren[node];
+    }
+
+    /**
+     * The next child of {@code node}'s parent, or -1 if {@code node} is the last one.
+     */
+    public int nextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    public int childCount(int node) {
+        int count = 0;
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) count++;
+        return count;
+    }
+
+    /**
+     * The {@code index}th child of {@code node}.
+     */
+    public int child(int node, int index) {
+        int child = firstChildren[node];
+        for (int i = 0; i < index; i++) child = nextSiblings[child];
+        return child;
+    }
+
+    /**
+     * The name of an identifier or the value of a literal.
+     */
+    public String text(int node) {
+        return strings.get(payloads[node]);
+    }
+
+    /**
+     * The operator of a unary, binary, logical or assignment expression.
+     */
+    public Operator operator(int node) {
+        return OPERATORS[payloads[node]];
+    }
+
+    /**
+     * Whether a member expression is computed, {@code a[b]}, rather than {@code a.b}.
+     */
+    public boolean computed(int node) {
+        return payloads[node] == 1;
+    }
+
+    /**
+     * Offset of the first character {@code node} was parsed from, or -1 if it is not a statement.
+     */
+    public int start(int node) {
+        return starts[node];
+    }
+
+    /**
+     * Offset just past the last character {@code node} was parsed from, or -1 if it is not a statement.
+     */
+    public int end(int node) {
+        return ends[node];
+    }
+
+    /**
+     * Bytes held by the arrays and the string table's references, not counting the strings themselves.
+     */
+    public long footprint() {
+        long perNode = Byte.BYTES + 5L * Integer.BYTES;
+        return perNode * kinds.length + (long) Integer.BYTES * strings.size();
+    }
+
+    /**
+     * Builds the record view of the whole program.
+     */
+    public ProgramASTNode toProgram() {
+        List<StatementASTNode> body = new ArrayList<>();
+        for (int child = firstChildren[0]; child != NONE; child = nextSiblings[child]) {
+            body.add(statement(child));
+        }
+        return new ProgramASTNode(ASTNodeType.Program, body);
+    }
+
+    /**
+     * Builds the record view of the statement subtree at {@code node}, or null for an absent node.
+     */
+    public StatementASTNode statement(int node) {
+        ASTNodeType kind = kind(node);
+        if (kind == null) return null;
+        int first = firstChildren[node];
+        return switch (kind) {
+            case ExpressionStatement -> new ExpressionStatementASTNode(kind, expression(first));
+            case BlockStatement -> new BlockStatementASTNode(kind, statements(first));
+            case VariableStatement -> {
+                List<VariableDeclarationNode> declarations = new ArrayList<>();
+                for (int child = first; child != NONE; child = nextSiblings[child]) {
+                    int init = nextSiblings[firstChildren[child]];
+                    declarations.add(new VariableDeclarationNode(
+                            ASTNodeType.VariableDeclaration,
+                            (IdentifierExpressionASTNode) expression(firstChildren[child]),
+                            expression(init)
+                    ));
+                }
+                yield new VariableStatementASTNode(kind, declarations);
+            }
+            case ifStatement -> {
+                int consequent = nextSiblings[first];
+                yield new IfStatementASTNode(kind, expression(first), statement(consequent), statement(nextSiblings[consequent]));
+            }
+            case WhileStatement, DoWhileStatement -> new IterationStatementASTNode(kind, expression(first), statement(nextSiblings[first]));
+            case ForStatement -> {
+                int test = nextSiblings[first];
+                int update = nextSiblings[test];
+                yield new ForLoopIterationStatementASTNode(
+                        kind, statement(first), expression(test), expression(update), statement(nextSiblings[update]));
+            }
+            case FunctionDeclaration -> {
+                List<ExpressionNode> params = new ArrayList<>();
+                int child = nextSiblings[first];
+                for (; nextSiblings[child] != NONE; child = nextSiblings[child]) {
+                    params.add(expression(child));
+                }
+                yield new FunctionDeclarationASTNode(kind, expression(first), params, statement(child));
+            }
+            case ReturnStatement -> new ReturnStatementASTNode(kind, expression(first));
+            case ClassDeclaration -> {
+                int superClass = nextSiblings[first];
+                yield new ClassDeclarationASTNode(kind, expression(first), expression(superClass), statement(nextSiblings[superClass]));
+            }
+            default -> throw new IllegalArgumentException("Node " + node + " is a " + kind + ", not a statement");
+        };
+    }
+
+    /**
+     * Builds the record view of the expression subtree at {@code node}, or null for an absent node.
+     */
+    public ExpressionNode expression(int node) {
+        ASTNodeType kind = kind(node);
+        if (kind == null) return null;
+        int first = firstChildren[node];
+        return switch (kind) {
+            case Identifier -> new IdentifierExpressionASTNode(kind, text(node));
+            case NumericLiteral, StringLiteral, BooleanLiteral, NullLiteral -> new LiteralASTNode(kind, text(node));
+            case ThisExpression, Super -> new BasicExpressionASTNode(kind);
+            case AssignmentExpression -> new AssignmentExpressionASTNode(
+                    kind, operator(node), expression(first), expression(nextSiblings[first]));
+            case BinaryExpression, LogicalExpression -> new BinaryExpressionASTNode(
+                    kind, operator(node), expression(first), expression(nextSiblings[first]));
+            case UnaryExpression -> new UnaryExpressionASTNode(kind, operator(node), expression(first));
+            case MemberExpression -> new MemberExpressionASTNode(
+                    kind, computed(node), expression(first), expression(nextSiblings[first]));
+            case CallExpression, NewExpression -> new CallExpressionASTNode(
+                    kind, expression(first), expressions(nextSiblings[first]));
+            default -> throw new IllegalArgumentException("Node " + node + " is a " + kind + ", not an expression");
+        };
+    }
+
+    private List<StatementASTNode> statements(int first) {
+        List<StatementASTNode> statements = new ArrayList<>();
+        for (int child = first; child != NONE; child = nextSiblings[child]) statements.add(statement(child));
+        return statements;
+    }
+
+    private List<ExpressionNode> expressions(int first) {
+        List<ExpressionNode> expressions = new ArrayList<>();
+        for (int child = first; child != NONE; child = nextSiblings[child]) expressions.add(expression(child));
+        return expressions;
+    }
+
+    /**
+     * Appends a top-level statement parsed from {@code region}.
+     */
+    void addStatement(StatementASTNode statement, Region region) {
+        lastStatement = appendChild(0, lastStatement, statement(statement, region.start(), region));
+    }
+
+    /**
+     * Drops the capacity the arena grew but did not use.
+     */
+    AstArena trim() {
+        kinds = Arrays.copyOf(kinds, size);
+        firstChildren = Arrays.copyOf(firstChildren, size);
+        nextSiblings = Arrays.copyOf(nextSiblings, size);
+        payloads = Arrays.copyOf(payloads, size);
+        starts = Arrays.copyOf(starts, size);
+        ends = Arrays.copyOf(ends, size);
+        stringIndexes.clear();
+        return this;
+    }
+
+    /**
+     * Appends {@code statement} and its subtree. {@code start} is the absolute offset of
+     * {@code region}, the region {@code statement} was parsed from, or null if there is none.
+     */
+    private int statement(StatementASTNode statement, int start, Region region) {
+        if (statement == null) return absent();
+        if (statement instanceof LazyBlockStatementASTNode lazy) statement = lazy.block();
+
+        int node = region == null
+                ? add(statement.type(), NONE, NONE, NONE)
+                : add(statement.type(), NONE, start, start + region.length());
+        RegionCursor children = new RegionCursor(region, start);
+
+        if (statement instanceof ExpressionStatementASTNode expressionStatement) {
+            appendChild(node, NONE, expression(expressionStatement.expression()));
+        } else if (statement instanceof BlockStatementASTNode block) {
+            int last = NONE;
+            for (StatementASTNode child : block.body()) last = appendChild(node, last, children.statement(child));
+        } else if (statement instanceof VariableStatementASTNode variableStatement) {
+            int last = NONE;
+            for (VariableDeclarationNode declaration : variableStatement.declarations()) {
+                int declarationNode = add(declaration.type(), NONE, NONE, NONE);
+                int id = appendChild(declarationNode, NONE, expression(declaration.id()));
+                appendChild(declarationNode, id, expression(declaration.init()));
+                last = appendChild(node, last, declarationNode);
+            }
+        } else if (statement instanceof IfStatementASTNode ifStatement) {
+            int last = appendChild(node, NONE, expression(ifStatement.test()));
+            last = appendChild(node, last, children.statement(ifStatement.consequent()));
+            appendChild(node, last, children.statement(ifStatement.alternate()));
+        } else if (statement instanceof IterationStatementASTNode iteration) {
+            int last = appendChild(node, NONE, expression(iteration.test()));
+            appendChild(node, last, children.statement(iteration.body()));
+        } else if (statement instanceof ForLoopIterationStatementASTNode forStatement) {
+            int last = appendChild(node, NONE, children.statement(forStatement.init()));
+            last = appendChild(node, last, expression(forStatement.test()));
+            last = appendChild(node, last, expression(forStatement.update()));
+            appendChild(node, last, children.statement(forStatement.body()));
+        } else if (statement instanceof FunctionDeclarationASTNode function) {
+            int last = appendChild(node, NONE, expression(function.name()));
+            for (ExpressionNode param : function.params()) last = appendChild(node, last, expression(param));
+            appendChild(node, last, children.statement(function.body()));
+        } else if (statement instanceof ReturnStatementASTNode returnStatement) {
+            appendChild(node, NONE, expression(returnStatement.argument()));
+        } else if (statement instanceof ClassDeclarationASTNode classDeclaration) {
+            int last = appendChild(node, NONE, expression(classDeclaration.id()));
+            last = appendChild(node, last, expression(classDeclaration.superClass()));
+            appendChild(node, last, children.statement(classDeclaration.body()));
+        }
+        return node;
+    }
+
+    private int expression(ExpressionNode expression) {
+        if (expression == null) return absent();
+
+        if (expression instanceof IdentifierExpressionASTNode identifier) {
+            return add(identifier.type(), string(identifier.name()), NONE, NONE);
+        } else if (expression instanceof LiteralASTNode literal) {
+            return add(literal.type(), string(String.valueOf(literal.value())), NONE, NONE);
+        } else if (expression instanceof BasicExpressionASTNode basic) {
+            return add(basic.type(), NONE, NONE, NONE);
+        } else if (expression instanceof AssignmentExpressionASTNode assignment) {
+            int node = add(assignment.type(), assignment.operator().ordinal(), NONE, NONE);
+            appendChild(node, appendChild(node, NONE, expression(assignment.left())), expression(assignment.right()));
+            return node;
+        } else if (expression instanceof BinaryExpressionASTNode binary) {
+            int node = add(binary.type(), binary.operator().ordinal(), NONE, NONE);
+            appendChild(node, appendChild(node, NONE, expression(binary.left())), expression(binary.right()));
+            return node;
+        } else if (expression instanceof UnaryExpressionASTNode unary) {
+            int node = add(unary.type(), unary.operator().ordinal(), NONE, NONE);
+            appendChild(node, NONE, expression(unary.argument()));
+            return node;
+        } else if (expression instanceof MemberExpressionASTNode member) {
+            int node = add(member.type(), member.computed() ? 1 : 0, NONE, NONE);
+            appendChild(node, appendChild(node, NONE, expression(member.object())), expression(member.property()));
+            return node;
+        } else if (expression instanceof CallExpressionASTNode call) {
+            return call(call.type(), call.callee(), call.arguments());
+        } else if (expression instanceof NewExpressionASTNode newExpression) {
+            return call(newExpression.type(), newExpression.callee(), newExpression.arguments());
+        }
+        throw new IllegalArgumentException("Unknown expression " + expression);
+    }
+
+    private int call(ASTNodeType type, ExpressionNode callee, List<ExpressionNode> arguments) {
+        int node = add(type, NONE, NONE, NONE);
+        int last = appendChild(node, NONE, expression(callee));
+        for (ExpressionNode argument : arguments) last = appendChild(node, last, expression(argument));
+        return node;
+    }
+
+    private int string(String value) {
+        Integer index = stringIndexes.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndexes.put(value, index);
+        }
+        return index;
+    }
+
+    private int absent() {
+        return add(null, NONE, NONE, NONE);
+    }
+
+    private int add(ASTNodeType kind, int payload, int start, int end) {
+        if (size == kinds.length) grow();
+        int node = size++;
+        kinds[node] = kind == null ? ABSENT : (byte) (kind.ordinal() + 1);
+        firstChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        payloads[node] = payload;
+        starts[node] = start;
+        ends[node] = end;
+        return node;
+    }
+
+    /**
+     * Links {@code child} after {@code previous}, or as the first child of {@code parent} if
+     * {@code previous} is -1.
+     */
+    private int appendChild(int parent, int previous, int child) {
+        if (previous == NONE) {
+            firstChildren[parent] = child;
+        } else {
+            nextSiblings[previous] = child;
+        }
+        return child;
+    }
+
+    private void grow() {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        payloads = Arrays.copyOf(payloads, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+    }
+
+    /**
+     * Walks the nested regions of a statement in step with its nested statements, which were
+     * parsed, and so recorded, in the same order.
+     */
+    private final class RegionCursor {
+        private final List<Region> regions;
+        private final int start;
+        private int next;
+
+        RegionCursor(Region region, int start) {
+            this.regions = region == null ? List.of() : region.children();
+            this.start = start;
+        }
+
+        int statement(StatementASTNode statement) {
+            if (statement != null && next < regions.size() && regions.get(next).node() == statement) {
+                Region region = regions.get(next++);
+                return AstArena.this.statement(statement, start + region.start(), region);
+            }
+            return AstArena.this.statement(statement, NONE, null);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example;
+
+import org.example.token.TokenType;
+
+/**
+ * A syntax error found by {@link Parser#parseWithDiagnostics(String)}.
+ *
+ * @param offset   where in the input the error was found
+ * @param expected the token that was expected, or null if several would do, e.g. any expression
+ * @param found    the token that was found, or null at the end of the input or where no token
+ *                 could be recognised
+ * @param message  the message the {@link org.example.exceptions.SyntaxException} for the error
+ *                 would have had
+ */
+public record Diagnostic(
+        int offset,
+        TokenType expected,
+        TokenType found,
+        String message
+) {
+}
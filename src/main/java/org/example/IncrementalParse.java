@@ -0,0 +1,47 @@
+package org.example;
+
+import org.example.AST.ProgramASTNode;
+
+import java.util.List;
+
+/**
+ * A program parsed by {@link IncrementalParser}: its text, its AST, and where every statement was
+ * parsed from, which is what a later {@link IncrementalParser#reparse} needs to reuse it.
+ * <p>
+ * A parse is immutable. Reparsing it after an edit leaves it untouched and shares every unchanged
+ * subtree with the new parse.
+ */
+public final class IncrementalParse {
+
+    private final String text;
+    private final ProgramASTNode program;
+    private final List<Region> regions;
+    private final int reparsedLength;
+
+    IncrementalParse(String text, ProgramASTNode program, List<Region> regions, int reparsedLength) {
+        this.text = text;
+        this.program = program;
+        this.regions = regions;
+        this.reparsedLength = reparsedLength;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    public ProgramASTNode program() {
+        return program;
+    }
+
+    /**
+     * Number of characters that were tokenized and parsed to produce this parse; the whole text
+     * for a full parse.
+     */
+    public int reparsedLength() {
+        return reparsedLength;
+    }
+
+    List<Region> regions() {
+        return regions;
+    }
+}
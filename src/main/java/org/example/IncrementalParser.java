@@ -0,0 +1,214 @@
+package org.example;
+
+import org.example.AST.*;
+import org.example.exceptions.SyntaxException;
+import org.example.token.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reparses a program after a text edit, reusing every part of the previous AST the edit did not touch.
+ * <p>
+ * Instead of the whole text, only the smallest block, function or class declaration that strictly
+ * encloses the edit is tokenized and parsed again. The nodes on the path from the program down to
+ * it are copied with the new subtree in place; all other nodes are shared with the previous parse.
+ * The result is always the tree {@link Parser#parseToAst(String)} would return for the edited text:
+ * if the reparsed text no longer ends where the old declaration ended, for example because a brace
+ * was removed, the next enclosing declaration is tried and finally the whole program.
+ * <p>
+ * Like {@link Parser}, an IncrementalParser holds no state and can be shared between threads.
+ */
+public class IncrementalParser {
+
+    // Appended to the text of a reparsed region. It is not a valid token, so a rule that looks past
+    // the end of the region fails instead of silently depending on text it would not see in context.
+    private static final String END_OF_REGION = "@";
+
+    /**
+     * Parses a whole program, recording what a later {@link #reparse} needs.
+     */
+    public IncrementalParse parse(String input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        ParseContext context = new ParseContext(tokenizer, true);
+        ProgramASTNode program = context.program();
+        return new IncrementalParse(input, program, context.regions(), input.length());
+    }
+
+    /**
+     * Parses the text of {@code previous} after replacing the {@code removedLength} characters at
+     * {@code offset} with {@code insertedText}. {@code previous} is left unchanged.
+     *
+     * @throws SyntaxException if the edited program is invalid
+     */
+    public IncrementalParse reparse(IncrementalParse previous, int offset, int removedLength, String insertedText) {
+        String text = previous.text();
+        Objects.checkFromIndexSize(offset, removedLength, text.length());
+        String editedText = text.substring(0, offset) + insertedText + text.substring(offset + removedLength);
+        int delta = insertedText.length() - removedLength;
+
+        // Regions strictly enclosing the edit, outermost first, with their absolute starts
+        List<Region> path = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        List<Region> level = previous.regions();
+        int base = 0;
+        Region enclosing;
+        while ((enclosing = enclosing(level, offset - base, offset + removedLength - base)) != null) {
+            base += enclosing.start();
+            path.add(enclosing);
+            starts.add(base);
+            level = enclosing.children();
+        }
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            if (!isReparseRoot(path.get(i).node())) continue;
+
+            int start = starts.get(i);
+            int end = start + path.get(i).length() + delta;
+            Region region = reparseRegion(editedText, start, end, path.get(i).start());
+            if (region != null) {
+                return replace(previous, editedText, path, i, region, delta, end - start);
+            }
+        }
+        return parse(editedText);
+    }
+
+    /**
+     * Finds the region in {@code regions} whose first and last characters are both outside
+     * {@code [from, to)} while the range lies between them, or null.
+     */
+    private static Region enclosing(List<Region> regions, int from, int to) {
+        int low = 0;
+        int high = regions.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Region region = regions.get(middle);
+            if (region.start() >= from) {
+                high = middle - 1;
+            } else if (region.start() + region.length() <= from) {
+                low = middle + 1;
+            } else {
+                return to < region.start() + region.length() ? region : null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isReparseRoot(StatementASTNode node) {
+        return node instanceof BlockStatementASTNode
+                || node instanceof FunctionDeclarationASTNode
+                || node instanceof ClassDeclarationASTNode;
+    }
+
+    /**
+     * Parses {@code text[start, end)} as one statement, or returns null if that statement does not
+     * end exactly at {@code end} without looking past it.
+     */
+    private static Region reparseRegion(String text, int start, int end, int relativeStart) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(text.substring(start, end) + END_OF_REGION);
+        ParseContext context = new ParseContext(tokenizer, true);
+        try {
+            StatementASTNode statement = context.nextStatement();
+            if (statement == null || tokenizer.consumedEnd() != end - start) return null;
+            Region region = context.regions().get(0);
+            return new Region(statement, relativeStart, region.length(), region.children());
+        } catch (SyntaxException | StackOverflowError exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Copies the path from the program down to {@code path[index]}, putting {@code region} in its
+     * place and moving everything after it by {@code delta}.
+     */
+    private static IncrementalParse replace(IncrementalParse previous, String text, List<Region> path, int index,
+                                            Region region, int delta, int reparsedLength) {
+        Region replacement = region;
+        for (int i = index - 1; i >= 0; i--) {
+            Region parent = path.get(i);
+            Region child = path.get(i + 1);
+            replacement = new Region(
+                    withChild(parent.node(), child.node(), replacement.node()),
+                    parent.start(),
+                    parent.length() + delta,
+                    replaceRegion(parent.children(), child, replacement, delta)
+            );
+        }
+
+        ProgramASTNode program = previous.program();
+        ProgramASTNode newProgram = new ProgramASTNode(
+                program.type(),
+                replaceNode(program.body(), path.get(0).node(), replacement.node())
+        );
+        List<Region> regions = replaceRegion(previous.regions(), path.get(0), replacement, delta);
+        return new IncrementalParse(text, newProgram, regions, reparsedLength);
+    }
+
+    private static List<Region> replaceRegion(List<Region> regions, Region old, Region replacement, int delta) {
+        List<Region> replaced = new ArrayList<>(regions.size());
+        boolean after = false;
+        for (Region region : regions) {
+            if (region == old) {
+                replaced.add(replacement);
+                after = true;
+            } else if (after) {
+                replaced.add(new Region(region.node(), region.start() + delta, region.length(), region.children()));
+            } else {
+                replaced.add(region);
+            }
+        }
+        return replaced;
+    }
+
+    private static List<StatementASTNode> replaceNode(List<StatementASTNode> nodes, StatementASTNode old,
+                                                      StatementASTNode replacement) {
+        List<StatementASTNode> replaced = new ArrayList<>(nodes);
+        for (int i = 0; i < replaced.size(); i++) {
+            if (replaced.get(i) == old) {
+                replaced.set(i, replacement);
+                break;
+            }
+        }
+        return replaced;
+    }
+
+    /**
+     * Copies {@code parent} with its nested statement {@code old} replaced.
+     */
+    private static StatementASTNode withChild(StatementASTNode parent, StatementASTNode old,
+                                              StatementASTNode replacement) {
+        if (parent instanceof BlockStatementASTNode block) {
+            return new BlockStatementASTNode(block.type(), replaceNode(block.body(), old, replacement));
+        } else if (parent instanceof IfStatementASTNode ifStatement) {
+            return new IfStatementASTNode(
+                    ifStatement.type(),
+                    ifStatement.test(),
+                    ifStatement.consequent() == old ? replacement : ifStatement.consequent(),
+                    ifStatement.alternate() == old ? replacement : ifStatement.alternate()
+            );
+        } else if (parent instanceof ForLoopIterationStatementASTNode forStatement) {
+            return new ForLoopIterationStatementASTNode(
+                    forStatement.type(),
+                    forStatement.init(),
+                    forStatement.test(),
+                    forStatement.update(),
+                    replacement
+            );
+        } else if (parent instanceof IterationStatementASTNode iteration) {
+            return new IterationStatementASTNode(iteration.type(), iteration.test(), replacement);
+        } else if (parent instanceof FunctionDeclarationASTNode function) {
+            return new FunctionDeclarationASTNode(function.type(), function.name(), function.params(), replacement);
+        } else if (parent instanceof ClassDeclarationASTNode classDeclaration) {
+            return new ClassDeclarationASTNode(
+                    classDeclaration.type(),
+                    classDeclaration.id(),
+                    classDeclaration.superClass(),
+                    replacement
+            );
+        }
+        throw new IllegalStateException("No nested statements in " + parent.getClass().getSimpleName());
+    }
+}
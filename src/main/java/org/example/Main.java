@@ -1,8 +1,7 @@
 package org.example;
 
 public class Main {
-    public static void main(String[] args) {
-        String input = """
+    public static final String SAMPLE_PROGRAM = """
                        class Square extends Point {
                        
                          def add() { 
@@ -35,7 +34,9 @@ public class Main {
                          }
                        }
                 """;
+
+    public static void main(String[] args) {
         Parser parser = new Parser();
-        System.out.println(parser.parse(input.trim()));
+        System.out.println(parser.parse(SAMPLE_PROGRAM.trim()));
     }
 }
\ No newline at end of file
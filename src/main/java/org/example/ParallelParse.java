@@ -0,0 +1,183 @@
+package org.example;
+
+import org.example.AST.*;
+import org.example.exceptions.SyntaxException;
+import org.example.token.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses one program on several threads, see {@link Parser#parseParallel(String, ForkJoinPool)}.
+ * <p>
+ * The program is first parsed as an outline, which only brace-matches function bodies, so the
+ * bodies of all top-level functions and class methods are found in one cheap sequential pass.
+ * The bodies are then parsed in fork/join tasks, and the outline is copied with the parsed bodies
+ * in place of the lazy ones. Since a body is parsed from exactly the text the sequential parser
+ * would have read for it, the tree is the one {@link Parser#parseToAst(String)} returns.
+ */
+final class ParallelParse {
+
+    // Characters of function bodies parsed by one task, enough to outweigh the cost of a task
+    private static final int CHARACTERS_PER_TASK = 8192;
+
+    private ParallelParse() {
+    }
+
+    /**
+     * Parses {@code input} in {@code pool}. If the outline or any body fails to parse, the whole
+     * program is parsed again sequentially, so the error thrown is the one a sequential parse
+     * would throw.
+     */
+    static ProgramASTNode parse(Parser parser, String input, ForkJoinPool pool) {
+        ProgramASTNode outline;
+        try {
+            Tokenizer tokenizer = new Tokenizer();
+            tokenizer.init(input);
+            ParseContext context = new ParseContext(tokenizer);
+            context.outline(input);
+            outline = context.program();
+        } catch (SyntaxException exception) {
+            return parser.parseToAst(input);
+        }
+
+        LazyBlockCollector collector = new LazyBlockCollector();
+        ASTWalker.walk(outline, collector);
+        if (collector.blocks.isEmpty()) return outline;
+
+        List<LazyBlockStatementASTNode> blocks = collector.blocks;
+        int[] ends = new int[blocks.size()];
+        int characters = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            characters += blocks.get(i).end() - blocks.get(i).start();
+            ends[i] = characters;
+        }
+        BodiesTask task = new BodiesTask(blocks, ends, 0, blocks.size());
+        pool.invoke(task);
+        if (task.failed()) return parser.parseToAst(input);
+
+        return new ProgramASTNode(outline.type(), statements(outline.body()));
+    }
+
+    /**
+     * Finds the lazy blocks of an outline without parsing them.
+     */
+    private static final class LazyBlockCollector implements ASTVisitor {
+        final List<LazyBlockStatementASTNode> blocks = new ArrayList<>();
+
+        @Override
+        public boolean enter(ASTNode node, ASTNode parent) {
+            if (node instanceof LazyBlockStatementASTNode lazy) {
+                blocks.add(lazy);
+                return false;
+            }
+            return node instanceof StatementASTNode || node instanceof ProgramASTNode;
+        }
+    }
+
+    /**
+     * Parses the blocks {@code [from, to)}, forking half of them until few enough characters are
+     * left for one task. {@code ends} holds the running total of the blocks' lengths.
+     */
+    private static final class BodiesTask extends RecursiveAction {
+        private final List<LazyBlockStatementASTNode> blocks;
+        private final int[] ends;
+        private final int from;
+        private final int to;
+        private BodiesTask first;
+        private BodiesTask second;
+        private boolean failed;
+
+        BodiesTask(List<LazyBlockStatementASTNode> blocks, int[] ends, int from, int to) {
+            this.blocks = blocks;
+            this.ends = ends;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean failed() {
+            if (first != null) return first.failed() || second.failed();
+            return failed;
+        }
+
+        @Override
+        protected void compute() {
+            int characters = ends[to - 1] - (from == 0 ? 0 : ends[from - 1]);
+            if (to - from > 1 && characters > CHARACTERS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                first = new BodiesTask(blocks, ends, from, middle);
+                second = new BodiesTask(blocks, ends, middle, to);
+                invokeAll(first, second);
+                return;
+            }
+
+            try {
+                for (int i = from; i < to; i++) blocks.get(i).block();
+            } catch (SyntaxException | StackOverflowError exception) {
+                failed = true;
+            }
+        }
+    }
+
+    private static List<StatementASTNode> statements(List<StatementASTNode> statements) {
+        List<StatementASTNode> resolved = null;
+        for (int i = 0; i < statements.size(); i++) {
+            StatementASTNode statement = statements.get(i);
+            StatementASTNode replacement = statement(statement);
+            if (replacement != statement && resolved == null) {
+                resolved = new ArrayList<>(statements);
+            }
+            if (resolved != null) resolved.set(i, replacement);
+        }
+        return resolved == null ? statements : resolved;
+    }
+
+    /**
+     * Copies {@code statement} with its lazy blocks replaced by the parsed ones. Statements without
+     * lazy blocks below them are returned as they are.
+     */
+    private static StatementASTNode statement(StatementASTNode statement) {
+        if (statement instanceof LazyBlockStatementASTNode lazy) {
+            return lazy.block();
+        } else if (statement instanceof BlockStatementASTNode block) {
+            List<StatementASTNode> body = statements(block.body());
+            return body == block.body() ? block : new BlockStatementASTNode(block.type(), body);
+        } else if (statement instanceof IfStatementASTNode ifStatement) {
+            StatementASTNode consequent = statement(ifStatement.consequent());
+            StatementASTNode alternate = statement(ifStatement.alternate());
+            if (consequent == ifStatement.consequent() && alternate == ifStatement.alternate()) return ifStatement;
+            return new IfStatementASTNode(ifStatement.type(), ifStatement.test(), consequent, alternate);
+        } else if (statement instanceof ForLoopIterationStatementASTNode forStatement) {
+            StatementASTNode init = statement(forStatement.init());
+            StatementASTNode body = statement(forStatement.body());
+            if (init == forStatement.init() && body == forStatement.body()) return forStatement;
+            return new ForLoopIterationStatementASTNode(
+                    forStatement.type(),
+                    init,
+                    forStatement.test(),
+                    forStatement.update(),
+                    body
+            );
+        } else if (statement instanceof IterationStatementASTNode iteration) {
+            StatementASTNode body = statement(iteration.body());
+            if (body == iteration.body()) return iteration;
+            return new IterationStatementASTNode(iteration.type(), iteration.test(), body);
+        } else if (statement instanceof FunctionDeclarationASTNode function) {
+            StatementASTNode body = statement(function.body());
+            if (body == function.body()) return function;
+            return new FunctionDeclarationASTNode(function.type(), function.name(), function.params(), body);
+        } else if (statement instanceof ClassDeclarationASTNode classDeclaration) {
+            StatementASTNode body = statement(classDeclaration.body());
+            if (body == classDeclaration.body()) return classDeclaration;
+            return new ClassDeclarationASTNode(
+                    classDeclaration.type(),
+                    classDeclaration.id(),
+                    classDeclaration.superClass(),
+                    body
+            );
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,1004 @@
+package org.example;
+
+import org.example.AST.*;
+import org.example.exceptions.SyntaxException;
+import org.example.metrics.GrammarRule;
+import org.example.token.TokenType;
+import org.example.token.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Convert the tokens of one input into AST(Abstract Syntax Tree) by recursive descent.
+ * <p>
+ * A context owns the tokenizer it reads from and is used for a single parse, so it is never
+ * shared between threads. The grammar tables are immutable and shared by all contexts.
+ */
+class ParseContext {
+
+    // Binding powers of the binary operators, from the loosest to the tightest.
+    static final int NONE = 0;
+    static final int ASSIGNMENT = 1;
+    static final int LOGICAL_OR = 2;
+    static final int LOGICAL_AND = 3;
+    static final int EQUALITY = 4;
+    static final int RELATIONAL = 5;
+    static final int ADDITIVE = 6;
+    static final int MULTIPLICATIVE = 7;
+
+    private static final int[] bindingPowers = new int[TokenType.values().length];
+
+    static {
+        bindingPowers[TokenType.SimpleAssignment.ordinal()] = ASSIGNMENT;
+        bindingPowers[TokenType.ComplexAssignment.ordinal()] = ASSIGNMENT;
+        bindingPowers[TokenType.LogicalOROperator.ordinal()] = LOGICAL_OR;
+        bindingPowers[TokenType.LogicalANDOperator.ordinal()] = LOGICAL_AND;
+        bindingPowers[TokenType.EqualityOperator.ordinal()] = EQUALITY;
+        bindingPowers[TokenType.RelationalOperator.ordinal()] = RELATIONAL;
+        bindingPowers[TokenType.Add.ordinal()] = ADDITIVE;
+        bindingPowers[TokenType.Minus.ordinal()] = ADDITIVE;
+        bindingPowers[TokenType.Multiply.ordinal()] = MULTIPLICATIVE;
+        bindingPowers[TokenType.Divide.ordinal()] = MULTIPLICATIVE;
+    }
+
+    static final Set<TokenType> literals = Set.of(
+            TokenType.NumericLiteral,
+            TokenType.StringLiteral,
+            TokenType.BooleanLiteral,
+            TokenType.NullLiteral
+    );
+    private final Tokenizer tokenizer;
+
+    // Regions of the statements parsed so far inside the current statement, or null when not recording
+    private List<Region> regions;
+    private int regionStart;
+
+    // Syntax errors recovered from so far, or null when the first one ends the parse
+    private List<Diagnostic> diagnostics;
+
+    // Invocations of each grammar rule, indexed by GrammarRule ordinal, or null when not counting
+    private long[] ruleCounts;
+
+    // The input, when function bodies are skipped rather than parsed, otherwise null
+    private String outlineInput;
+
+    ParseContext(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * A context that also records the {@link Region} of every statement it parses,
+     * see {@link #regions()}.
+     */
+    ParseContext(Tokenizer tokenizer, boolean recordRegions) {
+        this.tokenizer = tokenizer;
+        this.regions = recordRegions ? new ArrayList<>() : null;
+    }
+
+    /**
+     * A context that does not stop at a syntax error: it adds a {@link Diagnostic} for it to
+     * {@code diagnostics}, drops the statement the error is in, and carries on after it.
+     */
+    ParseContext(Tokenizer tokenizer, List<Diagnostic> diagnostics) {
+        this.tokenizer = tokenizer;
+        this.diagnostics = diagnostics;
+        tokenizer.setErrorStackTraces(false);
+    }
+
+    /**
+     * Counts the invocations of every grammar rule from now on into {@code ruleCounts}, at the
+     * index of its {@link GrammarRule} ordinal.
+     */
+    void countRules(long[] ruleCounts) {
+        this.ruleCounts = ruleCounts;
+    }
+
+    /**
+     * From now on, skips the bodies of function declarations instead of parsing them, and leaves
+     * a {@link LazyBlockStatementASTNode} in their place. {@code input} is the text the tokenizer
+     * reads.
+     */
+    void outline(String input) {
+        this.outlineInput = input;
+    }
+
+    /**
+     * Regions of the top-level statements parsed so far, relative to the start of the input.
+     */
+    List<Region> regions() {
+        return regions;
+    }
+
+    /**
+     * Program
+     * : StatementList
+     **/
+    ProgramASTNode program() {
+        return new ProgramASTNode(ASTNodeType.Program, statementList());
+    }
+
+    /**
+     * StatementList
+     *     :Statement[]
+     * **/
+    private List<StatementASTNode> statementList() {
+        List<StatementASTNode> statementASTNodes = new ArrayList<>();
+
+        while (hasNextStatement()) {
+            StatementASTNode statement = nextStatement();
+            if (statement != null) statementASTNodes.add(statement);
+        }
+
+        return statementASTNodes;
+    }
+
+    /**
+     * True while the program has top-level statements left to parse.
+     */
+    boolean hasNextStatement() {
+        return !tokenizer.isEOF();
+    }
+
+    /**
+     * Parses the next top-level statement, for callers that consume a program statement by
+     * statement instead of building the whole {@link ProgramASTNode}.
+     */
+    StatementASTNode nextStatement() {
+        return statement();
+    }
+
+    /**
+     * Statement
+     * : ExpressionStatement
+     * | BlockStatement
+     * | VariableStatement
+     * | IterationStatement
+     * | FunctionDeclarationStatement
+     * | ClassDeclarationStatement
+     * | ReturnStatement
+     **/
+
+    private StatementASTNode statement() {
+        if (tokenizer.isEOF()) return null;
+        count(GrammarRule.Statement);
+        if (diagnostics != null) return recoveringStatement();
+        if (regions != null) return recordedStatement();
+        return dispatchStatement();
+    }
+
+    /**
+     * Parses a statement or, if it contains a syntax error, records the error, skips to where the
+     * next statement is likely to start, and returns null. The innermost statement around an error
+     * is the one dropped, so the block, function or class containing it is kept.
+     */
+    private StatementASTNode recoveringStatement() {
+        long consumedTokens = tokenizer.getConsumedTokenCount();
+        try {
+            return dispatchStatement();
+        } catch (SyntaxException exception) {
+            diagnostics.add(new Diagnostic(
+                    exception.getOffset(),
+                    exception.getExpected(),
+                    exception.getFound(),
+                    exception.getMessage()
+            ));
+            synchronize(consumedTokens);
+            return null;
+        }
+    }
+
+    /**
+     * Skips tokens up to the end of the statement that failed: past the next ';' or balanced
+     * '{ ... }', or up to a '}' closing the enclosing block or a keyword starting a statement.
+     * At least one token is skipped, so a statement that fails on its first token cannot fail
+     * at the same place again.
+     */
+    private void synchronize(long consumedTokens) {
+        if (tokenizer.getConsumedTokenCount() == consumedTokens) skip(tokenizer.tryPeekType());
+
+        int depth = 0;
+        while (!tokenizer.isEOF()) {
+            TokenType type = tokenizer.tryPeekType();
+            if (depth == 0 && (type == TokenType.CloseCurlyBracket || startsStatement(type))) return;
+
+            skip(type);
+            if (type == TokenType.Semicolon && depth == 0) return;
+            if (type == TokenType.OpenCurlyBracket) depth++;
+            if (type == TokenType.CloseCurlyBracket && --depth == 0) return;
+        }
+    }
+
+    private void skip(TokenType type) {
+        if (type == null) {
+            tokenizer.skipCharacter();
+        } else {
+            tokenizer.advance();
+        }
+    }
+
+    private static boolean startsStatement(TokenType type) {
+        return type == TokenType.IfKeyword
+                || type == TokenType.VariableKeyword
+                || type == TokenType.WhileKeyword
+                || type == TokenType.DoKeyword
+                || type == TokenType.ForKeyword
+                || type == TokenType.DefKeyword
+                || type == TokenType.ReturnKeyword
+                || type == TokenType.ClassKeyword;
+    }
+
+    private StatementASTNode recordedStatement() {
+        List<Region> parentRegions = regions;
+        int parentStart = regionStart;
+        tokenizer.peekType();
+        int start = tokenizer.tokenStart();
+
+        regions = new ArrayList<>();
+        regionStart = start;
+        StatementASTNode statement = dispatchStatement();
+        parentRegions.add(new Region(statement, start - parentStart, tokenizer.consumedEnd() - start, regions));
+
+        regions = parentRegions;
+        regionStart = parentStart;
+        return statement;
+    }
+
+    private StatementASTNode dispatchStatement() {
+        switch (tokenizer.peekType()) {
+            case IfKeyword -> {
+                return ifStatement();
+            }
+            case VariableKeyword -> {
+                return variableStatement();
+            }
+            case OpenCurlyBracket -> {
+                return blockStatement();
+            }
+            case WhileKeyword, DoKeyword, ForKeyword -> {
+                return iterationStatement();
+            }
+            case DefKeyword -> {
+                return functionDeclarationStatement();
+            }
+            case ReturnKeyword -> {
+                return returnStatement();
+            }
+            case ClassKeyword -> {
+                return classDeclarationStatement();
+            }
+            default -> {
+                return new ExpressionStatementASTNode(
+                        ASTNodeType.ExpressionStatement,
+                        expressionStatement()
+                );
+            }
+        }
+    }
+
+    /**
+     * IfStatement
+     * : If ParenthesizedExpression BlockStatement else BlockStatement
+     **/
+
+    private StatementASTNode ifStatement() {
+        count(GrammarRule.IfStatement);
+        tokenizer.eatToken(TokenType.IfKeyword);
+
+        ExpressionNode test = parenthesizeExpression();
+        StatementASTNode consequent = statement();
+        StatementASTNode alternate = null;
+
+        if (tokenizer.peekType() == TokenType.ElseKeyword) {
+            tokenizer.eatToken(TokenType.ElseKeyword);
+            alternate = statement();
+        }
+
+        return new IfStatementASTNode(
+                ASTNodeType.ifStatement,
+                test,
+                consequent,
+                alternate
+        );
+    }
+
+    /**
+     * VariableStatement
+     * : let VariableDeclaration[] ;
+     **/
+    private StatementASTNode variableStatement() {
+        count(GrammarRule.VariableStatement);
+        tokenizer.eatToken(TokenType.VariableKeyword);
+        List<VariableDeclarationNode> variableDeclarations = variableDeclarationList();
+
+        if (!tokenizer.isEOF() && tokenizer.peekType() == TokenType.Semicolon) tokenizer.eatToken(TokenType.Semicolon);
+
+        return new VariableStatementASTNode(ASTNodeType.VariableStatement, variableDeclarations);
+    }
+
+    /**
+     * VariableDeclarationList
+     *    : VariableDeclaration[]
+     * **/
+    private List<VariableDeclarationNode> variableDeclarationList() {
+        List<VariableDeclarationNode> declarations = new ArrayList<>();
+        do {
+            declarations.add(variableDeclaration());
+        } while (!tokenizer.isEOF() && tokenizer.peekType() == TokenType.Comma);
+        return declarations;
+    }
+
+    /**
+     * VariableDeclaration
+     * : Identifier OptionalVariableInitializer
+     **/
+
+    private VariableDeclarationNode variableDeclaration() {
+        count(GrammarRule.VariableDeclaration);
+        if (tokenizer.peekType() == TokenType.Comma) tokenizer.eatToken(TokenType.Comma);
+        IdentifierExpressionASTNode identifierNode =
+                (IdentifierExpressionASTNode) identifierExpression();
+
+        TokenType lookAheadType = tokenizer.peekType();
+
+        ExpressionNode init =
+                (lookAheadType == TokenType.Comma || lookAheadType == TokenType.Semicolon) ? null :
+                        variableInitializer();
+
+        return new VariableDeclarationNode(ASTNodeType.VariableDeclaration, identifierNode, init);
+    }
+
+    private ExpressionNode variableInitializer() {
+        TokenType lookAheadType = tokenizer.peekType();
+        if (lookAheadType == TokenType.SimpleAssignment) {
+            tokenizer.eatToken(TokenType.SimpleAssignment);
+        } else {
+            throw tokenizer.syntaxError("Invalid syntax. Expected an assignment operator but found" + lookAheadType,
+                    TokenType.SimpleAssignment, lookAheadType);
+        }
+
+        return expressionStatement();
+    }
+
+    /**
+     * BlockStatement
+     * : {
+     *      Statement[]
+     * }
+     **/
+
+    private StatementASTNode blockStatement() {
+        count(GrammarRule.BlockStatement);
+        if (tokenizer.peekType() == TokenType.CloseCurlyBracket) {
+            tokenizer.eatToken(TokenType.CloseCurlyBracket);
+            return new BlockStatementASTNode(ASTNodeType.BlockStatement, List.of());
+        }
+
+        if (tokenizer.peekType() == TokenType.OpenCurlyBracket) {
+            tokenizer.eatToken(TokenType.OpenCurlyBracket);
+        }
+
+        List<StatementASTNode> statementList = new ArrayList<>();
+
+        while (!tokenizer.isEOF() && tokenizer.peekType() != TokenType.CloseCurlyBracket) {
+            StatementASTNode statementASTNode = statement();
+            if (statementASTNode != null) statementList.add(statementASTNode);
+        }
+
+        if (tokenizer.peekType() == TokenType.CloseCurlyBracket) {
+            tokenizer.eatToken(TokenType.CloseCurlyBracket);
+        }
+
+        return new BlockStatementASTNode(ASTNodeType.BlockStatement, statementList);
+    }
+
+    /**
+     * IterationStatement
+     * : ForStatement
+     * | WhileStatement
+     * | DoStatement
+     **/
+
+    private StatementASTNode iterationStatement() {
+        switch (tokenizer.peekType()) {
+            case ForKeyword -> {
+                return forStatement();
+            }
+            case WhileKeyword -> {
+                return whileStatement();
+            }
+            case DoKeyword -> {
+                return doWhileStatement();
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * FunctionDeclaration
+     *  : def functionName ( OptionalParams ) BlockStatement
+     * */
+
+    private StatementASTNode functionDeclarationStatement() {
+        count(GrammarRule.FunctionDeclaration);
+        tokenizer.eatToken(TokenType.DefKeyword);
+        ExpressionNode name = expressionStatement();
+
+        tokenizer.eatToken(TokenType.OpenParenthesis);
+        List<ExpressionNode> params = new ArrayList<>();
+
+        while (tokenizer.peekType() != TokenType.CloseParenthesis) {
+            params.add(expressionStatement());
+            if (tokenizer.peekType() == TokenType.Comma) {
+                tokenizer.eatToken(TokenType.Comma);
+            }
+        }
+
+        tokenizer.eatToken(TokenType.CloseParenthesis);
+
+        StatementASTNode body = outlineInput != null && tokenizer.peekType() == TokenType.OpenCurlyBracket
+                ? skippedBlock()
+                : statement();
+
+        return new FunctionDeclarationASTNode(
+                ASTNodeType.FunctionDeclaration,
+                name,
+                params,
+                body
+        );
+    }
+
+    /**
+     * Moves past the block that starts at the next token by matching its braces, without
+     * parsing it. Tokens are only scanned, so their text is never copied out of the input.
+     */
+    private StatementASTNode skippedBlock() {
+        int start = tokenizer.tokenStart();
+        int depth = 0;
+        do {
+            TokenType type = tokenizer.peekType();
+            if (type == null) break;
+            if (type == TokenType.OpenCurlyBracket) depth++;
+            else if (type == TokenType.CloseCurlyBracket) depth--;
+            tokenizer.advance();
+        } while (depth > 0);
+        return new LazyBlockStatementASTNode(outlineInput, start, tokenizer.consumedEnd());
+    }
+
+
+    /**
+     * ReturnStatement
+     * : return OptExpression ;
+     **/
+    private StatementASTNode returnStatement() {
+        count(GrammarRule.ReturnStatement);
+        tokenizer.eatToken(TokenType.ReturnKeyword);
+        ExpressionNode optExpression =
+                (tokenizer.peekType() == TokenType.Semicolon) ? null : expressionStatement();
+
+        if (tokenizer.peekType() == TokenType.Semicolon) tokenizer.eatToken(TokenType.Semicolon);
+        return new ReturnStatementASTNode(
+                ASTNodeType.ReturnStatement,
+                optExpression
+        );
+    }
+
+    /**
+     * ClassDeclaration
+     *  : 'class' Identifier OptClassExtends BlockStatement
+     **/
+
+    private StatementASTNode classDeclarationStatement() {
+        count(GrammarRule.ClassDeclaration);
+        tokenizer.eatToken(TokenType.ClassKeyword);
+        ExpressionNode id = identifierExpression();
+        ExpressionNode optSuperClass =
+                (tokenizer.peekType() == TokenType.ExtendsKeyword) ? classExtends(): null;
+
+        StatementASTNode body = statement();
+
+        return new ClassDeclarationASTNode(
+                ASTNodeType.ClassDeclaration,
+                id,
+                optSuperClass,
+                body
+        );
+    }
+
+    /**
+     * Class Extends
+     *     : 'extends' Identifier
+     * **/
+    private ExpressionNode classExtends() {
+        tokenizer.eatToken(TokenType.ExtendsKeyword);
+        return identifierExpression();
+    }
+
+    /**
+     * Expression
+     * : AssignmentExpression
+     **/
+    private ExpressionNode expressionStatement() {
+        return expression(ASSIGNMENT);
+    }
+
+    /**
+     * AssignmentExpression
+     * : LogicalORExpression
+     * | LeftHandSideExpression ASSIGNMENT_OPERATOR AssignmentExpression
+     *
+     * LogicalORExpression
+     *  : LogicalANDExpression
+     *  | LogicalANDExpression LOGICAL_OR_OPERATOR LogicalORExpression
+     *
+     * LogicalANDExpression
+     * : EqualityExpression
+     * | EqualityExpression LOGICAL_AND_OPERATOR LogicalANDExpression
+     *
+     * EqualityExpression
+     * : RelationalExpression
+     * | RelationalExpression EQUALITY_OPERATOR EqualityExpression
+     *
+     * RelationalExpression
+     *  : AdditiveExpression
+     *  | AdditiveExpression RELATIONAL_OPERATOR RelationalExpression
+     *
+     * AdditiveExpression
+     * : MultiplicativeExpression
+     * | AdditiveExpression ADDITIVE_OPERATOR MultiplicativeExpression
+     *
+     * MultiplicativeExpression
+     * : UnaryExpression
+     * | MultiplicativeExpression MULTIPLICATION_OPERATOR UnaryExpression
+     * ;
+     *
+     * All of the above are parsed by precedence climbing in a single loop: operands are unary
+     * expressions, and an operator is only taken while its binding power is at least
+     * {@code minBindingPower}. Operators up to relational ones are right associative, so their
+     * right operand is parsed at their own binding power; additive and multiplicative operators
+     * are left associative and parse their right operand one level tighter.
+     * <p>
+     * An additive expression consumes the ';' that follows it. Looser operators may still follow
+     * the ';', but an additive or multiplicative one starts the next statement.
+     **/
+    private ExpressionNode expression(int minBindingPower) {
+        count(GrammarRule.Expression);
+        ExpressionNode left = unaryExpression();
+        boolean semicolonChecked = minBindingPower > ADDITIVE;
+
+        while (true) {
+            TokenType operatorType = tokenizer.peekType();
+            int bindingPower = bindingPower(operatorType);
+
+            if (!semicolonChecked && bindingPower < ADDITIVE) {
+                semicolonChecked = true;
+                if (operatorType == TokenType.Semicolon) {
+                    tokenizer.eatToken(TokenType.Semicolon);
+                    continue;
+                }
+            } else if (semicolonChecked && minBindingPower <= ADDITIVE && bindingPower >= ADDITIVE) {
+                // The additive expression has ended, so the operand before this operator was ended
+                // by a ';', here or in a right operand: the operator starts the next statement.
+                return left;
+            }
+
+            if (bindingPower == NONE || bindingPower < minBindingPower) {
+                return left;
+            }
+
+            Operator operator = binaryOperator(operatorType);
+
+            if (bindingPower == ASSIGNMENT) {
+                IdentifierExpressionASTNode target = assignmentTarget(tokenizer, left, operatorType);
+                tokenizer.advance();
+                left = new AssignmentExpressionASTNode(
+                        ASTNodeType.AssignmentExpression,
+                        operator,
+                        target,
+                        expression(ASSIGNMENT)
+                );
+            } else {
+                tokenizer.advance();
+                ASTNodeType type = bindingPower <= LOGICAL_AND
+                        ? ASTNodeType.LogicalExpression
+                        : ASTNodeType.BinaryExpression;
+                int rightBindingPower = bindingPower >= ADDITIVE ? bindingPower + 1 : bindingPower;
+                left = new BinaryExpressionASTNode(type, operator, left, expression(rightBindingPower));
+            }
+        }
+    }
+
+    /**
+     * The operator of the binary or assignment operator token that is next in the input.
+     */
+    private Operator binaryOperator(TokenType tokenType) {
+        return binaryOperator(tokenType, tokenizer.tokenEnd() - tokenizer.tokenStart(), tokenizer.tokenText().charAt(0));
+    }
+
+    static Operator binaryOperator(TokenType tokenType, int length, char first) {
+        return switch (tokenType) {
+            case SimpleAssignment -> Operator.Assign;
+            case ComplexAssignment -> switch (first) {
+                case '+' -> Operator.AddAssign;
+                case '-' -> Operator.MinusAssign;
+                case '*' -> Operator.MultiplyAssign;
+                default -> Operator.DivideAssign;
+            };
+            case LogicalOROperator -> Operator.LogicalOr;
+            case LogicalANDOperator -> Operator.LogicalAnd;
+            case EqualityOperator -> Operator.Equal;
+            case RelationalOperator -> first == '<'
+                    ? (length == 2 ? Operator.LessOrEqual : Operator.Less)
+                    : (length == 2 ? Operator.GreaterOrEqual : Operator.Greater);
+            case Add -> Operator.Add;
+            case Minus -> Operator.Minus;
+            case Multiply -> Operator.Multiply;
+            case Divide -> Operator.Divide;
+            default -> throw new IllegalArgumentException("Not a binary operator: " + tokenType);
+        };
+    }
+
+    static Operator unaryOperator(TokenType tokenType) {
+        if (tokenType == null) return null;
+        return switch (tokenType) {
+            case Add -> Operator.UnaryPlus;
+            case Minus -> Operator.UnaryMinus;
+            case LogicalNot -> Operator.Not;
+            default -> null;
+        };
+    }
+
+    static ASTNodeType literalType(TokenType tokenType) {
+        return switch (tokenType) {
+            case NumericLiteral -> ASTNodeType.NumericLiteral;
+            case StringLiteral -> ASTNodeType.StringLiteral;
+            case BooleanLiteral -> ASTNodeType.BooleanLiteral;
+            default -> ASTNodeType.NullLiteral;
+        };
+    }
+
+    static int bindingPower(TokenType tokenType) {
+        return tokenType == null ? NONE : bindingPowers[tokenType.ordinal()];
+    }
+
+    private void count(GrammarRule rule) {
+        if (ruleCounts != null) ruleCounts[rule.ordinal()]++;
+    }
+
+    /**
+     * Returns {@code node} as the target of an assignment, checked while the operator is the next
+     * token so that the error points at it.
+     */
+    static IdentifierExpressionASTNode assignmentTarget(Tokenizer tokenizer, ExpressionNode node, TokenType operatorType) {
+        if (node instanceof IdentifierExpressionASTNode identifier) return identifier;
+        throw tokenizer.syntaxError("Expected IdentifierExpressionASTNode but found " + node, TokenType.Identifier, operatorType);
+    }
+
+    /**
+     * UnaryExpression
+     * : LeftHandSideExpression
+     * | ADDITIVE_OPERATOR UnaryExpression
+     * | LOGICAL_NOT UnaryExpression
+     **/
+
+    private ExpressionNode unaryExpression() {
+        count(GrammarRule.UnaryExpression);
+        Operator operator = unaryOperator(tokenizer.peekType());
+
+        if (operator != null) {
+            // skip operator token
+            tokenizer.skipNextToken();
+            return new UnaryExpressionASTNode(
+                    ASTNodeType.UnaryExpression,
+                    operator,
+                    unaryExpression()
+            );
+        }
+
+        return leftHandSideExpression();
+    }
+
+    /**
+     * LeftHandSideExpression
+     * : CallMemberExpression
+     * **/
+    private ExpressionNode leftHandSideExpression() {
+        return callMemberExpression();
+    }
+
+    /**
+     * CallMemberExpression
+     *  : MemberExpression
+     *  | CallExpression
+     * **/
+    private ExpressionNode callMemberExpression() {
+        if (tokenizer.peekType() == TokenType.SuperKeyword) {
+            return callExpression(tokenizer, superExpression());
+        }
+        ExpressionNode member = memberExpression();
+        if (tokenizer.peekType() == TokenType.OpenBracket) {
+            return callExpression(tokenizer, member);
+        }
+        return member;
+    }
+
+    private ExpressionNode callExpression(Tokenizer tokenizer, ExpressionNode callee) {
+        count(GrammarRule.CallExpression);
+        ExpressionNode callExpression = new CallExpressionASTNode(
+                ASTNodeType.CallExpression,
+                callee,
+                arguments(tokenizer)
+        );
+
+        if (!tokenizer.isEOF() && tokenizer.peekType() == TokenType.OpenBracket) {
+            callExpression = callExpression(tokenizer, callExpression);
+        }
+
+        return callExpression;
+    }
+
+    /**
+     * Arguments
+     *  : ( OptArgumentList )
+     * **/
+    private List<ExpressionNode> arguments(Tokenizer tokenizer) {
+        count(GrammarRule.Arguments);
+        // Eat (
+        tokenizer.eatToken(TokenType.OpenParenthesis);
+
+        List<ExpressionNode> argumentList =
+                (tokenizer.peekType() != TokenType.CloseParenthesis) ? argumentList(tokenizer) : List.of();
+
+        // Eat )
+        tokenizer.eatToken(TokenType.CloseParenthesis);
+
+        return argumentList;
+    }
+
+    private List<ExpressionNode> argumentList(Tokenizer tokenizer) {
+        List<ExpressionNode> arguments = new ArrayList<>();
+
+        while (tokenizer.peekType() != TokenType.CloseParenthesis) {
+            arguments.add(expressionStatement());
+            // Eat comma
+            if (tokenizer.peekType() == TokenType.Comma) {
+                tokenizer.eatToken(TokenType.Comma);
+            }
+        }
+
+        return arguments;
+    }
+
+    /**
+     * MemberExpression
+     * : PrimaryExpression
+     * | MemberExpression .  Identifier
+     * | MemberExpression [ 'Expression' ]
+     * **/
+
+    private ExpressionNode memberExpression() {
+        count(GrammarRule.MemberExpression);
+        ExpressionNode object = primaryExpression();
+
+        while(tokenizer.peekType() == TokenType.Dot || tokenizer.peekType() == TokenType.OpenBracket) {
+            if (tokenizer.peekType() == TokenType.Dot) {
+                tokenizer.eatToken(TokenType.Dot);
+                object = new MemberExpressionASTNode(
+                        ASTNodeType.MemberExpression,
+                        false,
+                        object,
+                        identifierExpression()
+                );
+            }
+
+            if (tokenizer.peekType() == TokenType.OpenBracket) {
+                tokenizer.eatToken(TokenType.OpenBracket);
+                ExpressionNode property = expressionStatement();
+                tokenizer.eatToken(TokenType.CloseBracket);
+                object = new MemberExpressionASTNode(
+                        ASTNodeType.MemberExpression,
+                        true,
+                        object,
+                        property
+                );
+            }
+        }
+        return object;
+    }
+
+    /**
+     * PrimaryExpression
+     * : ParenthesizeExpression
+     * | LiteralExpression
+     * | Identifier
+     * | ThisExpression
+     * | NewExpression
+     **/
+
+    private ExpressionNode primaryExpression() {
+        count(GrammarRule.PrimaryExpression);
+        TokenType lookAheadType = tokenizer.peekType();
+        if (lookAheadType == null) {
+            throw tokenizer.syntaxError("Invalid syntax. Expected an expression but found the end of the input", null, null);
+        }
+        if (isLiteral(lookAheadType)) {
+            return literalExpression();
+        }
+        else if  (lookAheadType == TokenType.OpenParenthesis) {
+            return parenthesizeExpression();
+        } else if (lookAheadType == TokenType.Identifier) {
+            return identifierExpression();
+        }
+        else if (lookAheadType == TokenType.ThisKeyword) {
+            return thisExpression();
+        } else if (lookAheadType == TokenType.NewKeyword) {
+            return newExpression();
+        } else if (lookAheadType == TokenType.SuperKeyword) {
+            return leftHandSideExpression();
+        }
+        throw tokenizer.syntaxError("Invalid syntax. Expected an expression but found " + lookAheadType, null, lookAheadType);
+    }
+
+    private boolean isLiteral(TokenType lookAheadType) {
+        return literals.contains(lookAheadType);
+    }
+
+    /**
+     * Literal
+     * : StringLiteral,
+     * | NumericLiteral,
+     * | BooleanLiteral,
+     * | NullLiteral
+     ***/
+
+    private ExpressionNode literalExpression() {
+        count(GrammarRule.Literal);
+        if (tokenizer.isEOF()) return null;
+        TokenType tokenType = tokenizer.peekType();
+        String literalValue = tokenizer.getNextTokenText();
+
+        if (literals.contains(tokenType)) {
+            return new LiteralASTNode(literalType(tokenType), literalValue);
+        }
+        return null;
+    }
+
+    /**
+     * ParenthesizeExpression
+     *   : '(' ExpressionStatement ')'
+     * **/
+
+    private ExpressionNode parenthesizeExpression() {
+        count(GrammarRule.ParenthesizedExpression);
+        tokenizer.eatToken(TokenType.OpenParenthesis);
+        ExpressionNode expressionNode = expressionStatement();
+        tokenizer.eatToken(TokenType.CloseParenthesis);
+        return expressionNode;
+    }
+
+    private ExpressionNode identifierExpression() {
+        count(GrammarRule.Identifier);
+        return new IdentifierExpressionASTNode(ASTNodeType.Identifier, tokenizer.getNextTokenText());
+    }
+
+    /**
+     * ThisExpression
+     *  : 'this'
+     * **/
+    private ExpressionNode thisExpression() {
+        count(GrammarRule.ThisExpression);
+        // eat 'this'
+        tokenizer.eatToken(TokenType.ThisKeyword);
+        return new BasicExpressionASTNode(ASTNodeType.ThisExpression);
+    }
+
+    /**
+     * NewExpression
+     *  : 'new' MemberExpression (Arguments)
+     * **/
+    private ExpressionNode newExpression() {
+        count(GrammarRule.NewExpression);
+        tokenizer.eatToken(TokenType.NewKeyword);
+        ExpressionNode callee = memberExpression();
+        List<ExpressionNode> arguments =  arguments(tokenizer);
+        return  new CallExpressionASTNode(
+                ASTNodeType.NewExpression,
+                callee,
+                arguments
+        );
+    }
+
+    /**
+     * ForStatement
+     * : for ( OptForStatementInit ; OptExpression ;  OptExpression ) BlockStatement
+     * **/
+
+    private StatementASTNode forStatement() {
+        count(GrammarRule.ForStatement);
+        tokenizer.eatToken(TokenType.ForKeyword);
+        tokenizer.eatToken(TokenType.OpenParenthesis);
+        StatementASTNode init = (tokenizer.peekType() != TokenType.Semicolon) ? forStatementInit() : null;
+        ExpressionNode test = (tokenizer.peekType() != TokenType.Semicolon) ? expressionStatement() : null;
+        ExpressionNode update = (tokenizer.peekType() != TokenType.Semicolon) ? expressionStatement() : null;
+        // skip )
+        tokenizer.eatToken(TokenType.CloseParenthesis);
+        StatementASTNode body = statement();
+
+        return new ForLoopIterationStatementASTNode(
+                ASTNodeType.ForStatement,
+                init,
+                test,
+                update,
+                body
+        );
+    }
+
+    /**
+     * ForStatementInit
+     *   : VariableStatementInit
+     *   | Expression
+     * **/
+
+    private StatementASTNode forStatementInit() {
+        if (tokenizer.peekType() == TokenType.VariableKeyword) {
+            return variableStatement();
+        }
+        return new ExpressionStatementASTNode(
+                ASTNodeType.ExpressionStatement,
+                expressionStatement()
+        );
+    }
+
+    /**
+     * WhileStatement
+     * : While ( Expression) BlockStatement
+     **/
+    public StatementASTNode whileStatement() {
+        count(GrammarRule.WhileStatement);
+        tokenizer.eatToken(TokenType.WhileKeyword);
+
+        return new IterationStatementASTNode(
+                ASTNodeType.WhileStatement,
+                parenthesizeExpression(),
+                statement()
+        );
+    }
+
+    /**
+     * DoWhileStatement
+     *  : Do BlockStatement while (Expression)
+     *
+     * **/
+    private StatementASTNode doWhileStatement() {
+        count(GrammarRule.DoWhileStatement);
+        tokenizer.eatToken(TokenType.DoKeyword);
+        StatementASTNode body = statement();
+        if (tokenizer.peekType() != TokenType.WhileKeyword) {
+            throw tokenizer.syntaxError("Invalid syntax. Expected while keyword", TokenType.WhileKeyword, tokenizer.peekType());
+        }
+        tokenizer.eatToken(TokenType.WhileKeyword);
+        ExpressionNode test = parenthesizeExpression();
+        return new IterationStatementASTNode(
+                ASTNodeType.DoWhileStatement,
+                test,
+                body
+        );
+    }
+
+    /**
+     * Super
+     * : 'super'
+     ***/
+    private ExpressionNode superExpression() {
+        count(GrammarRule.Super);
+        tokenizer.eatToken(TokenType.SuperKeyword);
+        return new BasicExpressionASTNode(ASTNodeType.Super);
+    }
+
+
+
+
+}
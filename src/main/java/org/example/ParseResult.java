@@ -0,0 +1,18 @@
+package org.example;
+
+import org.example.AST.ProgramASTNode;
+
+import java.util.List;
+
+/**
+ * The result of {@link Parser#parseWithDiagnostics(String)}: the statements that parsed, and every
+ * syntax error found in those that did not, in input order.
+ */
+public record ParseResult(
+        ProgramASTNode program,
+        List<Diagnostic> diagnostics
+) {
+    public boolean hasErrors() {
+        return !diagnostics.isEmpty();
+    }
+}
@@ -1,801 +1,406 @@
 package org.example;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.example.AST.*;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.AST.ASTNode;
+import org.example.AST.ASTNodeType;
+import org.example.AST.ASTVisitor;
+import org.example.AST.ASTWalker;
+import org.example.AST.LazyBlockStatementASTNode;
+import org.example.AST.ProgramASTNode;
+import org.example.AST.StatementASTNode;
 import org.example.exceptions.SyntaxException;
-import org.example.token.Token;
-import org.example.token.TokenType;
+import org.example.metrics.GrammarRule;
+import org.example.metrics.ParseEvent;
+import org.example.metrics.ParseMetrics;
+import org.example.metrics.ParseStatistics;
+import org.example.metrics.SerializeEvent;
 import org.example.token.Tokenizer;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Convert tokens into AST(Abstract Syntax Tree)
+ * <p>
+ * A Parser holds no per-parse state: every call tokenizes and parses in its own
+ * {@link ParseContext}, and JSON is written with a shared, immutable {@link ObjectWriter}.
+ * One instance can therefore be shared freely between threads.
+ * <p>
+ * Parses into a tree and serializations to JSON can be measured, see {@link ParseMetrics}.
  */
 public class Parser {
 
-    private final Set<TokenType> assignmentOperators = Set.of(TokenType.SimpleAssignment, TokenType.ComplexAssignment);
-    private final Set<TokenType> additiveOperators = Set.of(TokenType.Add, TokenType.Minus);
-    private final  Set<TokenType> multiplicativeOperators = Set.of(TokenType.Multiply, TokenType.Divide);
-
-    private final Set<TokenType> literals = Set.of(
-            TokenType.NumericLiteral,
-            TokenType.StringLiteral,
-            TokenType.BooleanLiteral,
-            TokenType.NullLiteral
-    );
-    private final Tokenizer tokenizer;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    public Parser() {
-        tokenizer = new Tokenizer();
-    }
-
     /**
-     * parses a program into an AST.
-     * Parse recursively starting from the main entry point. -> Program
+     * Version of the grammar and of the trees it produces. Bumped whenever the same input could
+     * parse to a different tree, so results cached by an older version are not reused.
      */
-    public String parse(String input) {
-        try {
-            tokenizer.init(input);
-            return objectMapper.writeValueAsString(program());
-        } catch(JsonProcessingException exception) {
-            return null;
-        }
-    }
+    public static final int GRAMMAR_VERSION = 2;
 
-    /**
-     * Program
-     * : StatementList
-     **/
-    private ProgramASTNode program() {
-        return new ProgramASTNode(ASTNodeType.Program.name(), statementList());
-    }
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper().writer();
+    private static final ObjectWriter STREAMING_JSON_WRITER = JSON_WRITER.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private static final GrammarRule[] RULES = GrammarRule.values();
 
-    /**
-     * StatementList
-     *     :Statement[]
-     * **/
-    private List<StatementASTNode> statementList() {
-        List<StatementASTNode> statementASTNodes = new ArrayList<>();
-
-        while (!tokenizer.isEOF()) {
-            statementASTNodes.add(statement());
-        }
+    private final ParseMetrics metrics;
 
-        return statementASTNodes;
+    public Parser() {
+        this(ParseMetrics.NONE);
     }
 
     /**
-     * Statement
-     * : ExpressionStatement
-     * | BlockStatement
-     * | VariableStatement
-     * | IterationStatement
-     * | FunctionDeclarationStatement
-     * | ClassDeclarationStatement
-     * | ReturnStatement
-     **/
-
-    private StatementASTNode statement() {
-        if (tokenizer.isEOF()) return null;
-        switch (tokenizer.lookAhead().type()) {
-            case IfKeyword -> {
-                return ifStatement();
-            }
-            case VariableKeyword -> {
-                return variableStatement();
-            }
-            case OpenCurlyBracket -> {
-                return blockStatement();
-            }
-            case WhileKeyword, DoKeyword, ForKeyword -> {
-                return iterationStatement();
-            }
-            case DefKeyword -> {
-                return functionDeclarationStatement();
-            }
-            case ReturnKeyword -> {
-                return returnStatement();
-            }
-            case ClassKeyword -> {
-                return classDeclarationStatement();
-            }
-            default -> {
-                return new ExpressionStatementASTNode(
-                        ASTNodeType.ExpressionStatement.name(),
-                        expressionStatement()
-                );
-            }
-        }
+     * A parser that reports how long its parses take and what went into them to {@code metrics}.
+     */
+    public Parser(ParseMetrics metrics) {
+        this.metrics = metrics;
     }
 
     /**
-     * IfStatement
-     * : If ParenthesizedExpression BlockStatement else BlockStatement
-     **/
-
-    private StatementASTNode ifStatement() {
-        tokenizer.eatToken(TokenType.IfKeyword);
-
-        ExpressionNode test = parenthesizeExpression();
-        StatementASTNode consequent = statement();
-        StatementASTNode alternate = null;
-
-        if (tokenizer.lookAhead().type() == TokenType.ElseKeyword) {
-            tokenizer.eatToken(TokenType.ElseKeyword);
-            alternate = statement();
-        }
-
-        return new IfStatementASTNode(
-                ASTNodeType.ifStatement.name(),
-                test,
-                consequent,
-                alternate
-        );
+     * parses a program into an AST.
+     * Parse recursively starting from the main entry point. -> Program
+     */
+    public String parse(String input) {
+        return toJson(parseToAst(input));
     }
 
     /**
-     * VariableStatement
-     * : let VariableDeclaration[] ;
-     **/
-    private StatementASTNode variableStatement() {
-        tokenizer.eatToken(TokenType.VariableKeyword);
-        List<VariableDeclarationNode> variableDeclarations = variableDeclarationList();
-
-        if (!tokenizer.isEOF() && tokenizer.lookAhead().type() == TokenType.Semicolon) tokenizer.eatToken(TokenType.Semicolon);
-
-        return new VariableStatementASTNode(ASTNodeType.VariableStatement.name(), variableDeclarations);
+     * parses a program read from {@code input} into an AST.
+     * The program is tokenized through a sliding buffer instead of being loaded into one String.
+     * The reader is not closed.
+     */
+    public String parse(Reader input) {
+        return toJson(parseToAst(input));
     }
 
     /**
-     * VariableDeclarationList
-     *    : VariableDeclaration[]
-     * **/
-    private List<VariableDeclarationNode> variableDeclarationList() {
-        List<VariableDeclarationNode> declarations = new ArrayList<>();
-        do {
-            declarations.add(variableDeclaration());
-        } while (!tokenizer.isEOF() && tokenizer.lookAhead().type() == TokenType.Comma);
-        return declarations;
+     * parses a UTF-8 encoded program read from {@code input} into an AST.
+     * The channel is not closed.
+     */
+    public String parse(ReadableByteChannel input) {
+        return toJson(parseToAst(input));
     }
 
     /**
-     * VariableDeclaration
-     * : Identifier OptionalVariableInitializer
-     **/
-
-    private VariableDeclarationNode variableDeclaration() {
-        if (tokenizer.lookAhead().type() == TokenType.Comma) tokenizer.eatToken(TokenType.Comma);
-        IdentifierExpressionASTNode identifierNode =
-                (IdentifierExpressionASTNode) identifierExpression();
-
-        Token lookAheadToken = tokenizer.lookAhead();
-
-        ExpressionNode init =
-                (lookAheadToken.type() == TokenType.Comma || lookAheadToken.type() == TokenType.Semicolon) ? null :
-                        variableInitializer();
-
-        return new VariableDeclarationNode(ASTNodeType.VariableDeclaration.name(), identifierNode, init);
-    }
-
-    private ExpressionNode variableInitializer() {
-        Token lookAheadToken = tokenizer.lookAhead();
-        if (lookAheadToken.type() == TokenType.SimpleAssignment) {
-            tokenizer.eatToken(TokenType.SimpleAssignment);
-        } else {
-            throw new SyntaxException("Invalid syntax. Expected an assignment operator but found" + lookAheadToken.type());
-        }
-
-        return assignmentExpression();
+     * parses the UTF-8 encoded program in {@code file} into an AST.
+     * The file is memory-mapped and tokenized in place, without first reading it into a String.
+     * Files larger than 2GB cannot be mapped in one piece and are rejected.
+     */
+    public String parseFile(Path file) throws IOException {
+        return toJson(parseFileToAst(file));
     }
 
     /**
-     * BlockStatement
-     * : {
-     *      Statement[]
-     * }
-     **/
-
-    private StatementASTNode blockStatement() {
-        if (tokenizer.lookAhead().type() == TokenType.CloseCurlyBracket) {
-            tokenizer.eatToken(TokenType.CloseCurlyBracket);
-            return new BlockStatementASTNode(ASTNodeType.BlockStatement.name(), List.of());
-        }
-
-        if (tokenizer.lookAhead().type() == TokenType.OpenCurlyBracket) {
-            tokenizer.eatToken(TokenType.OpenCurlyBracket);
-        }
-
-        List<StatementASTNode> statementList = new ArrayList<>();
-
-        while (!tokenizer.isEOF() && tokenizer.lookAhead().type() != TokenType.CloseCurlyBracket) {
-            StatementASTNode statementASTNode = statement();
-            if (statementASTNode != null) statementList.add(statementASTNode);
-        }
-
-        if (tokenizer.lookAhead().type() == TokenType.CloseCurlyBracket) {
-            tokenizer.eatToken(TokenType.CloseCurlyBracket);
-        }
-
-        return new BlockStatementASTNode(ASTNodeType.BlockStatement.name(), statementList);
+     * parses a program and writes its AST as UTF-8 JSON to {@code output}, one top-level statement
+     * at a time. Each statement is written as soon as it is parsed and then dropped, so the whole
+     * tree is never held in memory. The output is the same as {@link #parse(String)}.
+     * The stream is flushed but not closed.
+     */
+    public void parse(String input, OutputStream output) throws IOException {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        writeJson(new ParseContext(tokenizer), output);
     }
 
     /**
-     * IterationStatement
-     * : ForStatement
-     * | WhileStatement
-     * | DoStatement
-     **/
-
-    private StatementASTNode iterationStatement() {
-        switch (tokenizer.lookAhead().type()) {
-            case ForKeyword -> {
-                return forStatement();
-            }
-            case WhileKeyword -> {
-                return whileStatement();
-            }
-            case DoKeyword -> {
-                return doWhileStatement();
-            }
-            default -> {
-                return null;
-            }
-        }
+     * Streaming form of {@link #parse(Reader)}, see {@link #parse(String, OutputStream)}.
+     * Together, memory is bounded by the input buffer and the largest top-level statement.
+     */
+    public void parse(Reader input, OutputStream output) throws IOException {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        writeJson(new ParseContext(tokenizer), output);
     }
 
     /**
-     * FunctionDeclaration
-     *  : def functionName ( OptionalParams ) BlockStatement
-     * */
-
-    private StatementASTNode functionDeclarationStatement() {
-        tokenizer.eatToken(TokenType.DefKeyword);
-        ExpressionNode name = expressionStatement();
-
-        tokenizer.eatToken(TokenType.OpenParenthesis);
-        List<ExpressionNode> params = new ArrayList<>();
-
-        while (tokenizer.lookAhead().type() != TokenType.CloseParenthesis) {
-            params.add(expressionStatement());
-            if (tokenizer.lookAhead().type() == TokenType.Comma) {
-                tokenizer.eatToken(TokenType.Comma);
-            }
+     * Streaming form of {@link #parseFile(Path)}, see {@link #parse(String, OutputStream)}.
+     */
+    public void parseFile(Path file, OutputStream output) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Tokenizer tokenizer = new Tokenizer();
+            tokenizer.init(buffer);
+            writeJson(new ParseContext(tokenizer), output);
         }
-
-        tokenizer.eatToken(TokenType.CloseParenthesis);
-
-        return new FunctionDeclarationASTNode(
-                ASTNodeType.FunctionDeclaration.name(),
-                name,
-                params,
-                statement()
-        );
-    }
-
-
-    /**
-     * ReturnStatement
-     * : return OptExpression ;
-     **/
-    private StatementASTNode returnStatement() {
-        tokenizer.eatToken(TokenType.ReturnKeyword);
-        ExpressionNode optExpression =
-                (tokenizer.lookAhead().type() == TokenType.Semicolon) ? null : expressionStatement();
-
-        if (tokenizer.lookAhead().type() == TokenType.Semicolon) tokenizer.eatToken(TokenType.Semicolon);
-        return new ReturnStatementASTNode(
-                ASTNodeType.ReturnStatement.name(),
-                optExpression
-        );
     }
 
     /**
-     * ClassDeclaration
-     *  : 'class' Identifier OptClassExtends BlockStatement
-     **/
-
-    private StatementASTNode classDeclarationStatement() {
-        tokenizer.eatToken(TokenType.ClassKeyword);
-        ExpressionNode id = identifierExpression();
-        ExpressionNode optSuperClass =
-                (tokenizer.lookAhead().type() == TokenType.ExtendsKeyword) ? classExtends(): null;
-
-        StatementASTNode body = statement();
-
-        return new ClassDeclarationASTNode(
-                ASTNodeType.ClassDeclaration.name(),
-                id,
-                optSuperClass,
-                body
-        );
-    }
-
-    /**
-     * Class Extends
-     *     : 'extends' Identifier
-     * **/
-    private ExpressionNode classExtends() {
-        tokenizer.eatToken(TokenType.ExtendsKeyword);
-        return identifierExpression();
-    }
-
-    /**
-     * Expression
-     * : AssignmentExpression
-     **/
-    private ExpressionNode expressionStatement() {
-        return assignmentExpression();
+     * parses a program into an AST and returns the tree itself, for callers that would otherwise
+     * have to read the JSON back.
+     */
+    public ProgramASTNode parseToAst(String input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        return program(new ParseContext(tokenizer), tokenizer);
     }
 
     /**
-     * AssignmentExpression
-     * : LogicalORExpression
-     * | LeftHandSideExpression ASSIGNMENT_OPERATOR AssignmentExpression
-     **/
-
-    private ExpressionNode assignmentExpression() {
-        ExpressionNode left = logicalORExpression();
-        if (tokenizer.lookAhead() != null && assignmentOperators.contains(tokenizer.lookAhead().type())) {
-            return new AssignmentExpressionASTNode(
-                    ASTNodeType.AssignmentExpression.name(),
-                    tokenizer.getNextToken().value(),
-                    returnIfIdentityExpressionASTNode(left),
-                    assignmentExpression()
-            );
-        }
-
-        return left;
-    }
-
-    private IdentifierExpressionASTNode returnIfIdentityExpressionASTNode(ExpressionNode node) {
-        if (node instanceof IdentifierExpressionASTNode) return (IdentifierExpressionASTNode) node;
-        throw new SyntaxException("Expected IdentifierExpressionASTNode but found " + node);
+     * Same as {@link #parse(Reader)}, returning the tree instead of JSON.
+     */
+    public ProgramASTNode parseToAst(Reader input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        return program(new ParseContext(tokenizer), tokenizer);
     }
 
     /**
-     * LogicalORExpression
-     *  : LogicalANDExpression
-     *  | LogicalANDExpression LOGICAL_OR_OPERATOR LogicalORExpression
-     * **/
-    private ExpressionNode logicalORExpression() {
-        ExpressionNode left = logicalANDExpression();
-        if (tokenizer.lookAhead() != null && tokenizer.lookAhead().type() == TokenType.LogicalOROperator) {
-            return new BinaryExpressionASTNode(
-                    ASTNodeType.LogicalExpression.name(),
-                    tokenizer.getNextToken().value(),
-                    left,
-                    logicalORExpression()
-            );
-        }
-
-        return left;
+     * Same as {@link #parse(ReadableByteChannel)}, returning the tree instead of JSON.
+     */
+    public ProgramASTNode parseToAst(ReadableByteChannel input) {
+        return parseToAst(Channels.newReader(input, StandardCharsets.UTF_8));
     }
 
     /**
-     * LogicalANDExpression
-     * : EqualityExpression
-     * | EqualityExpression LOGICAL_AND_OPERATOR LogicalANDExpression
-     * **/
-
-    private ExpressionNode logicalANDExpression() {
-        ExpressionNode left = equalityExpression();
-        if (tokenizer.lookAhead() != null && tokenizer.lookAhead().type() == TokenType.LogicalANDOperator) {
-            return new BinaryExpressionASTNode(
-                    ASTNodeType.LogicalExpression.name(),
-                    tokenizer.getNextToken().value(),
-                    left,
-                    logicalANDExpression()
-            );
+     * Same as {@link #parseFile(Path)}, returning the tree instead of JSON.
+     */
+    public ProgramASTNode parseFileToAst(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Tokenizer tokenizer = new Tokenizer();
+            tokenizer.init(buffer);
+            return program(new ParseContext(tokenizer), tokenizer);
         }
-        return left;
     }
 
     /**
-     * EqualityExpression
-     * : RelationalExpression
-     * | RelationalExpression EQUALITY_OPERATOR EqualityExpression
+     * parses the outline of a program: its classes with their superclasses, and its functions and
+     * methods with their names and parameters. Function bodies are only matched brace to brace, not
+     * parsed; each one is a {@link LazyBlockStatementASTNode} that parses itself when first
+     * accessed, so a syntax error in a body is only thrown then; an invalid token is still thrown
+     * straight away, since bodies are scanned to find their end. Everything else is parsed as
+     * usual, and {@link #toJson} of the outline is the JSON {@link #parse(String)} returns.
      */
-    private ExpressionNode equalityExpression() {
-        ExpressionNode left = relationalExpression();
-        if (tokenizer.lookAhead() != null && tokenizer.lookAhead().type() == TokenType.EqualityOperator) {
-            return new BinaryExpressionASTNode(
-                    ASTNodeType.BinaryExpression.name(),
-                    tokenizer.getNextToken().value(),
-                    left,
-                    equalityExpression()
-            );
-        }
-
-        return left;
+    public ProgramASTNode parseOutline(String input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        ParseContext context = new ParseContext(tokenizer);
+        context.outline(input);
+        return program(context, tokenizer);
     }
 
     /**
-     * RelationalExpression
-     *  : AdditiveExpression
-     *  | AdditiveExpression RELATIONAL_OPERATOR RelationalExpression
-     * */
-    private ExpressionNode relationalExpression() {
-        ExpressionNode left = additiveExpression();
-        if (tokenizer.lookAhead() != null && tokenizer.lookAhead().type() == TokenType.RelationalOperator) {
-            return new BinaryExpressionASTNode(
-                    ASTNodeType.BinaryExpression.name(),
-                    tokenizer.getNextToken().value(),
-                    left,
-                    relationalExpression()
-            );
-        }
-
-        return left;
+     * parses the single statement in {@code input[start, end)}, such as a function body of an
+     * outline. Offsets of syntax errors are relative to the start of {@code input}, as they would
+     * be when parsing all of it.
+     */
+    public StatementASTNode parseStatement(String input, int start, int end) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input, start, end);
+        return new ParseContext(tokenizer).nextStatement();
     }
 
     /**
-     * AdditiveExpression
-     * : MultiplicativeExpression
-     * | AdditiveExpression ADDITIVE_OPERATOR MultiplicativeExpression
-     * ;
-     **/
-    private ExpressionNode additiveExpression() {
-        ExpressionNode left = multiplicativeExpression();
-
-        while (!tokenizer.isEOF() && additiveOperators.contains(tokenizer.lookAhead().type())) {
-            String operator = tokenizer.lookAhead().type().name();
-            tokenizer.eatToken(tokenizer.lookAhead().type());
-            ExpressionNode right = multiplicativeExpression();
-
-            left = new BinaryExpressionASTNode(ASTNodeType.BinaryExpression.name(), operator, left, right);
-        }
-
-        if (tokenizer.lookAhead().type() == TokenType.Semicolon) {
-            tokenizer.eatToken(TokenType.Semicolon);
-            return left;
-        }
-
-        return left;
+     * Same as {@link #parseToAst(String)}, parsing in the common fork/join pool, see
+     * {@link #parseParallel(String, ForkJoinPool)}.
+     */
+    public ProgramASTNode parseParallel(String input) {
+        return parseParallel(input, ForkJoinPool.commonPool());
     }
 
     /**
-     * MultiplicativeExpression
-     * : UnaryExpression
-     * | MultiplicativeExpression MULTIPLICATION_OPERATOR UnaryExpression
-     * ;
-     **/
-
-    private ExpressionNode multiplicativeExpression() {
-        ExpressionNode left = unaryExpression();
-
-        while (!tokenizer.isEOF() && multiplicativeOperators.contains(tokenizer.lookAhead().type())) {
-            String operator = tokenizer.lookAhead().type().name();
-            tokenizer.skipNextToken();
-            ExpressionNode right = unaryExpression();
-
-            left = new BinaryExpressionASTNode(ASTNodeType.BinaryExpression.name(), operator, left, right);
-        }
-
-        return left;
+     * Same as {@link #parseToAst(String)}, parsing the bodies of functions and class methods
+     * concurrently in {@code pool}. The calling thread first parses the program as by
+     * {@link #parseOutline(String)}, which finds where the bodies start and end. Worth it for large
+     * programs with many functions or methods.
+     * <p>
+     * The tree, and so its JSON, is the one {@link #parseToAst(String)} returns. On a syntax error
+     * the program is parsed again sequentially to throw the same exception. Parallel parses are
+     * not reported to {@link ParseMetrics}.
+     */
+    public ProgramASTNode parseParallel(String input, ForkJoinPool pool) {
+        return ParallelParse.parse(this, input, pool);
     }
 
     /**
-     * UnaryExpression
-     * : LeftHandSideExpression
-     * | ADDITIVE_OPERATOR UnaryExpression
-     * | LOGICAL_NOT UnaryExpression
-     **/
-
-    private ExpressionNode unaryExpression() {
-        String operator = null;
-        Token lookAheadToken = tokenizer.lookAhead();
-        if (lookAheadToken.type() == TokenType.Add ||
-                lookAheadToken.type() == TokenType.Minus
-        ) {
-            operator = lookAheadToken.value();
-        } else if (lookAheadToken.type() == TokenType.LogicalNot) {
-            operator = lookAheadToken.value();
-        }
-
-        if (operator != null) {
-            // skip operator token
-            tokenizer.skipNextToken();
-            return new UnaryExpressionASTNode(
-                    ASTNodeType.UnaryExpression.name(),
-                    operator,
-                    unaryExpression()
-            );
-        }
-
-        return leftHandSideExpression();
+     * parses a program without stopping at the first syntax error, so one pass finds all of them.
+     * A statement with an error is left out of the tree and parsing resumes after it, at the next
+     * ';', '}' or statement keyword. Nothing is thrown for the errors; each one is returned as a
+     * {@link Diagnostic}. For a valid program the tree is the one {@link #parseToAst(String)} returns.
+     */
+    public ParseResult parseWithDiagnostics(String input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        ProgramASTNode program = program(new ParseContext(tokenizer, diagnostics), tokenizer);
+        return new ParseResult(program, diagnostics);
     }
 
     /**
-     * LeftHandSideExpression
-     * : CallMemberExpression
-     * **/
-    private ExpressionNode leftHandSideExpression() {
-        return callMemberExpression();
+     * parses a program into an {@link AstArena}, a flat form of the AST that holds all nodes in a
+     * few primitive arrays instead of one object each. Statements are parsed one at a time and
+     * copied into the arena, so the record form of at most one top-level statement is alive at once.
+     */
+    public AstArena parseToArena(String input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        ParseContext context = new ParseContext(tokenizer, true);
+        AstArena arena = new AstArena(input.length() / 4 + 16);
+        while (context.hasNextStatement()) {
+            StatementASTNode statement = context.nextStatement();
+            List<Region> regions = context.regions();
+            arena.addStatement(statement, regions.get(regions.size() - 1));
+            regions.clear();
+        }
+        return arena.trim();
+    }
+
+    /**
+     * Same as {@link #parseToAst(String)}, but the parser keeps its state on a heap-allocated stack
+     * instead of recursing, so deeply nested blocks, parentheses and calls are limited by memory
+     * rather than by the thread stack size. It is slower than {@link #parseToAst(String)} and only
+     * worth using for machine-generated input.
+     * <p>
+     * The returned tree can still be too deep for {@link #toJson(ProgramASTNode)} or for the
+     * records' own {@code equals}, which recurse.
+     */
+    public ProgramASTNode parseDeeplyNestedToAst(String input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        return new StackParseContext(tokenizer).program();
     }
 
     /**
-     * CallMemberExpression
-     *  : MemberExpression
-     *  | CallExpression
-     * **/
-    private ExpressionNode callMemberExpression() {
-        if (tokenizer.lookAhead().type() == TokenType.SuperKeyword) {
-            return callExpression(tokenizer, superExpression());
-        }
-        ExpressionNode member = memberExpression();
-        if (tokenizer.lookAhead().type() == TokenType.OpenBracket) {
-            return callExpression(tokenizer, member);
-        }
-        return member;
-    }
-
-    private ExpressionNode callExpression(Tokenizer tokenizer, ExpressionNode callee) {
-        ExpressionNode callExpression = new CallExpressionASTNode(
-                ASTNodeType.CallExpression.name(),
-                callee,
-                arguments(tokenizer)
-        );
-
-        if (!tokenizer.isEOF() && tokenizer.lookAhead().type() == TokenType.OpenBracket) {
-            callExpression = callExpression(tokenizer, callExpression);
-        }
-
-        return callExpression;
+     * Same as {@link #parseDeeplyNestedToAst(String)}, reading the program from {@code input}.
+     */
+    public ProgramASTNode parseDeeplyNestedToAst(Reader input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        return new StackParseContext(tokenizer).program();
     }
 
     /**
-     * Arguments
-     *  : ( OptArgumentList )
-     * **/
-    private List<ExpressionNode> arguments(Tokenizer tokenizer) {
-        // Eat (
-        tokenizer.eatToken(TokenType.OpenParenthesis);
-
-        List<ExpressionNode> argumentList =
-                (tokenizer.lookAhead().type() != TokenType.CloseParenthesis) ? argumentList(tokenizer) : List.of();
-
-        // Eat )
-        tokenizer.eatToken(TokenType.CloseParenthesis);
-
-        return argumentList;
-    }
+     * Serializes a parsed program to the JSON returned by {@link #parse(String)}.
+     *
+     * @throws SyntaxException if a function body of an outline has to be parsed and is invalid
+     */
+    public String toJson(ProgramASTNode program) {
+        SerializeEvent event = new SerializeEvent();
+        if (metrics == ParseMetrics.NONE && !event.isEnabled()) return writeJson(program);
 
-    private List<ExpressionNode> argumentList(Tokenizer tokenizer) {
-        List<ExpressionNode> arguments = new ArrayList<>();
+        event.begin();
+        long start = System.nanoTime();
+        String json = writeJson(program);
+        long nanos = System.nanoTime() - start;
+        event.end();
 
-        while (tokenizer.lookAhead().type() != TokenType.CloseParenthesis) {
-            arguments.add(assignmentExpression());
-            // Eat comma
-            if (tokenizer.lookAhead().type() == TokenType.Comma) {
-                tokenizer.eatToken(TokenType.Comma);
-            }
+        long characters = json == null ? 0 : json.length();
+        metrics.serialized(nanos, characters);
+        if (event.shouldCommit()) {
+            event.characters = characters;
+            event.commit();
         }
-
-        return arguments;
+        return json;
     }
 
-    /**
-     * MemberExpression
-     * : PrimaryExpression
-     * | MemberExpression .  Identifier
-     * | MemberExpression [ 'Expression' ]
-     * **/
-
-    private ExpressionNode memberExpression() {
-        ExpressionNode object = primaryExpression();
-
-        while(tokenizer.lookAhead().type() == TokenType.Dot || tokenizer.lookAhead().type() == TokenType.OpenBracket) {
-            if (tokenizer.lookAhead().type() == TokenType.Dot) {
-                tokenizer.eatToken(TokenType.Dot);
-                object = new MemberExpressionASTNode(
-                        ASTNodeType.MemberExpression.name(),
-                        false,
-                        object,
-                        identifierExpression()
-                );
-            }
-
-            if (tokenizer.lookAhead().type() == TokenType.OpenBracket) {
-                tokenizer.eatToken(TokenType.OpenBracket);
-                ExpressionNode property = expressionStatement();
-                tokenizer.eatToken(TokenType.CloseBracket);
-                object = new MemberExpressionASTNode(
-                        ASTNodeType.MemberExpression.name(),
-                        true,
-                        object,
-                        property
-                );
+    private static String writeJson(ProgramASTNode program) {
+        try {
+            return JSON_WRITER.writeValueAsString(program);
+        } catch(JsonProcessingException exception) {
+            // A lazy function body is parsed while it is written, and its syntax error must not be lost
+            for (Throwable cause = exception.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof SyntaxException syntaxException) throw syntaxException;
             }
+            return null;
         }
-        return object;
     }
 
     /**
-     * PrimaryExpression
-     * : ParenthesizeExpression
-     * | LiteralExpression
-     * | Identifier
-     * | ThisExpression
-     * | NewExpression
-     **/
-
-    private ExpressionNode primaryExpression() {
-        Token lookAheadToken = tokenizer.lookAhead();
-        if (isLiteral(lookAheadToken)) {
-            return literalExpression();
-        }
-        else if  (lookAheadToken.type() == TokenType.OpenParenthesis) {
-            return parenthesizeExpression();
-        } else if (lookAheadToken.type() == TokenType.Identifier) {
-            return identifierExpression();
-        }
-        else if (lookAheadToken.type() == TokenType.ThisKeyword) {
-            return thisExpression();
-        } else if (lookAheadToken.type() == TokenType.NewKeyword) {
-            return newExpression();
-        }
-        return leftHandSideExpression();
-    }
-
-    private boolean isLiteral(Token lookAheadToken) {
-        Set<TokenType> literals = Set.of(
-                TokenType.NumericLiteral,
-                TokenType.StringLiteral,
-                TokenType.BooleanLiteral,
-                TokenType.NullLiteral
+     * Parses the program {@code context} reads from {@code tokenizer}, measuring the parse if
+     * anyone is listening.
+     */
+    private ProgramASTNode program(ParseContext context, Tokenizer tokenizer) {
+        ParseEvent event = new ParseEvent();
+        if (metrics == ParseMetrics.NONE && !event.isEnabled()) return context.program();
+
+        long[] ruleCounts = new long[RULES.length];
+        context.countRules(ruleCounts);
+        tokenizer.setTimed(true);
+        event.begin();
+        long start = System.nanoTime();
+        ProgramASTNode program = context.program();
+        long nanos = System.nanoTime() - start;
+        event.end();
+
+        NodeCounter nodes = new NodeCounter();
+        ASTWalker.walk(program, nodes);
+        Map<GrammarRule, Long> counts = new EnumMap<>(GrammarRule.class);
+        for (GrammarRule rule : RULES) counts.put(rule, ruleCounts[rule.ordinal()]);
+        long lexNanos = tokenizer.getScanNanos();
+        ParseStatistics statistics = new ParseStatistics(
+                tokenizer.consumedEnd(),
+                tokenizer.getConsumedTokenCount(),
+                tokenizer.getScanCount(),
+                nodes.count,
+                lexNanos,
+                nanos - lexNanos,
+                Collections.unmodifiableMap(counts)
         );
-        return literals.contains(lookAheadToken.type());
-    }
 
-    /**
-     * Literal
-     * : StringLiteral,
-     * | NumericLiteral,
-     * | BooleanLiteral,
-     * | NullLiteral
-     ***/
-
-    private ExpressionNode literalExpression() {
-        if (tokenizer.isEOF()) return null;
-        Token token = tokenizer.getNextToken();
-
-        if (literals.contains(token.type())) {
-            String literalValue = token.value();
-            return new LiteralASTNode(token.type().name(), literalValue);
+        metrics.parsed(statistics);
+        if (event.shouldCommit()) {
+            event.characters = statistics.characters();
+            event.tokens = statistics.tokens();
+            event.rescans = statistics.rescans();
+            event.nodes = statistics.nodes();
+            event.lexTime = lexNanos;
+            event.ruleCounts = ruleCounts(ruleCounts);
+            event.commit();
         }
-        return null;
-    }
-
-    /**
-     * ParenthesizeExpression
-     *   : '(' ExpressionStatement ')'
-     * **/
-
-    private ExpressionNode parenthesizeExpression() {
-        tokenizer.eatToken(TokenType.OpenParenthesis);
-        ExpressionNode expressionNode = expressionStatement();
-        tokenizer.eatToken(TokenType.CloseParenthesis);
-        return expressionNode;
-    }
-
-    private ExpressionNode identifierExpression() {
-        return new IdentifierExpressionASTNode(ASTNodeType.Identifier.name(), tokenizer.getNextToken().value());
-    }
-
-    /**
-     * ThisExpression
-     *  : 'this'
-     * **/
-    private ExpressionNode thisExpression() {
-        // eat 'this'
-        tokenizer.eatToken(TokenType.ThisKeyword);
-        return new BasicExpressionASTNode(ASTNodeType.ThisExpression.name());
-    }
-
-    /**
-     * NewExpression
-     *  : 'new' MemberExpression (Arguments)
-     * **/
-    private ExpressionNode newExpression() {
-        tokenizer.eatToken(TokenType.NewKeyword);
-        ExpressionNode callee = memberExpression();
-        List<ExpressionNode> arguments =  arguments(tokenizer);
-        return  new CallExpressionASTNode(
-                ASTNodeType.NewExpression.name(),
-                callee,
-                arguments
-        );
-    }
-
-    /**
-     * ForStatement
-     * : for ( OptForStatementInit ; OptExpression ;  OptExpression ) BlockStatement
-     * **/
-
-    private StatementASTNode forStatement() {
-        tokenizer.eatToken(TokenType.ForKeyword);
-        tokenizer.eatToken(TokenType.OpenParenthesis);
-        StatementASTNode init = (tokenizer.lookAhead().type() != TokenType.Semicolon) ? forStatementInit() : null;
-        ExpressionNode test = (tokenizer.lookAhead().type() != TokenType.Semicolon) ? expressionStatement() : null;
-        ExpressionNode update = (tokenizer.lookAhead().type() != TokenType.Semicolon) ? expressionStatement() : null;
-        // skip )
-        tokenizer.eatToken(TokenType.CloseParenthesis);
-        StatementASTNode body = statement();
-
-        return new ForLoopIterationStatementASTNode(
-                ASTNodeType.ForStatement.name(),
-                init,
-                test,
-                update,
-                body
-        );
+        return program;
     }
 
-    /**
-     * ForStatementInit
-     *   : VariableStatementInit
-     *   | Expression
-     * **/
-
-    private StatementASTNode forStatementInit() {
-        if (tokenizer.lookAhead().type() == TokenType.VariableKeyword) {
-            return variableStatement();
+    private static String ruleCounts(long[] ruleCounts) {
+        StringBuilder builder = new StringBuilder();
+        for (GrammarRule rule : RULES) {
+            if (ruleCounts[rule.ordinal()] == 0) continue;
+            if (builder.length() > 0) builder.append(' ');
+            builder.append(rule).append('=').append(ruleCounts[rule.ordinal()]);
         }
-        return new ExpressionStatementASTNode(
-                ASTNodeType.ExpressionStatement.name(),
-                expressionStatement()
-        );
-    }
-
-    /**
-     * WhileStatement
-     * : While ( Expression) BlockStatement
-     **/
-    public StatementASTNode whileStatement() {
-        tokenizer.eatToken(TokenType.WhileKeyword);
-
-        return new IterationStatementASTNode(
-                ASTNodeType.WhileStatement.name(),
-                parenthesizeExpression(),
-                statement()
-        );
+        return builder.toString();
     }
 
     /**
-     * DoWhileStatement
-     *  : Do BlockStatement while (Expression)
-     *
-     * **/
-    private StatementASTNode doWhileStatement() {
-        tokenizer.eatToken(TokenType.DoKeyword);
-        StatementASTNode body = statement();
-        if (tokenizer.lookAhead().type() != TokenType.WhileKeyword) {
-            throw new SyntaxException("Invalid syntax. Expected while keyword");
+     * Counts the nodes of a tree. A function body of an outline that has not been parsed yet counts
+     * as one node, so counting does not parse it.
+     */
+    private static final class NodeCounter implements ASTVisitor {
+        long count;
+
+        @Override
+        public boolean enter(ASTNode node, ASTNode parent) {
+            count++;
+            return !(node instanceof LazyBlockStatementASTNode lazy) || lazy.isParsed();
+        }
+    }
+
+    private static void writeJson(ParseContext context, OutputStream output) throws IOException {
+        try (JsonGenerator generator = STREAMING_JSON_WRITER.createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Left open on a syntax error, so a failed stream cannot be mistaken for a whole program
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartObject();
+            generator.writeStringField("type", ASTNodeType.Program.name());
+            generator.writeArrayFieldStart("body");
+            while (context.hasNextStatement()) {
+                STREAMING_JSON_WRITER.writeValue(generator, context.nextStatement());
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
         }
-        tokenizer.eatToken(TokenType.WhileKeyword);
-        ExpressionNode test = parenthesizeExpression();
-        return new IterationStatementASTNode(
-                ASTNodeType.DoWhileStatement.name(),
-                test,
-                body
-        );
     }
-
-    /**
-     * Super
-     * : 'super'
-     ***/
-    private ExpressionNode superExpression() {
-        tokenizer.eatToken(TokenType.SuperKeyword);
-        return new BasicExpressionASTNode(ASTNodeType.Super.name());
-    }
-
-
-
-
 }
@@ -0,0 +1,20 @@
+package org.example;
+
+import org.example.AST.StatementASTNode;
+
+import java.util.List;
+
+/**
+ * The characters a statement was parsed from.
+ * <p>
+ * {@code start} is relative to the start of the enclosing statement's region, or to the start of
+ * the input for a top-level statement, so a region stays valid when text before its parent is
+ * edited. {@code children} are the regions of the statements nested directly inside, in order.
+ */
+record Region(
+        StatementASTNode node,
+        int start,
+        int length,
+        List<Region> children
+) {
+}
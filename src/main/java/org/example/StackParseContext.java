@@ -0,0 +1,700 @@
+package org.example;
+
+import org.example.AST.*;
+import org.example.token.TokenType;
+import org.example.token.Tokenizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.example.ParseContext.ADDITIVE;
+import static org.example.ParseContext.ASSIGNMENT;
+import static org.example.ParseContext.LOGICAL_AND;
+import static org.example.ParseContext.NONE;
+
+/**
+ * Convert the tokens of one input into AST(Abstract Syntax Tree) without recursing on the Java stack.
+ * <p>
+ * The grammar and the nodes built are the same as {@link ParseContext}, but a rule that is waiting
+ * for a nested rule is kept as a {@link Frame} on a heap-allocated stack instead of a Java stack
+ * frame. A rule calls a nested rule by recording the step to resume at and pushing the nested
+ * frame; when the nested rule returns, its node is left in {@link #result} and the caller resumes.
+ * Nesting depth is therefore limited by the heap, not by the thread stack size.
+ * <p>
+ * Like {@link ParseContext}, a context is used for a single parse and never shared between threads.
+ */
+class StackParseContext {
+
+    private enum Rule {
+        Statement,
+        IfStatement,
+        VariableStatement,
+        BlockStatement,
+        FunctionDeclaration,
+        ReturnStatement,
+        ClassDeclaration,
+        ForStatement,
+        WhileStatement,
+        DoWhileStatement,
+        ExpressionStatement,
+        Expression,
+        UnaryExpression,
+        CallMemberExpression,
+        CallExpression,
+        Arguments,
+        MemberExpression,
+        PrimaryExpression,
+        ParenthesizeExpression,
+        NewExpression
+    }
+
+    /**
+     * A rule in progress: where to resume and the parts parsed so far.
+     */
+    private static final class Frame {
+        final Rule rule;
+        final int minBindingPower;
+        int step;
+        int bindingPower;
+        boolean semicolonChecked;
+        Operator operator;
+        Object first;
+        Object second;
+        Object third;
+        List<Object> list;
+
+        Frame(Rule rule, int minBindingPower) {
+            this.rule = rule;
+            this.minBindingPower = minBindingPower;
+        }
+    }
+
+    private final Tokenizer tokenizer;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private Object result;
+
+    StackParseContext(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Program
+     * : StatementList
+     **/
+    ProgramASTNode program() {
+        List<StatementASTNode> statementASTNodes = new ArrayList<>();
+
+        while (!tokenizer.isEOF()) {
+            statementASTNodes.add((StatementASTNode) run(Rule.Statement));
+        }
+
+        return new ProgramASTNode(ASTNodeType.Program, statementASTNodes);
+    }
+
+    private Object run(Rule rule) {
+        stack.push(new Frame(rule, NONE));
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            switch (frame.rule) {
+                case Statement -> statement();
+                case IfStatement -> ifStatement(frame);
+                case VariableStatement -> variableStatement(frame);
+                case BlockStatement -> blockStatement(frame);
+                case FunctionDeclaration -> functionDeclarationStatement(frame);
+                case ReturnStatement -> returnStatement(frame);
+                case ClassDeclaration -> classDeclarationStatement(frame);
+                case ForStatement -> forStatement(frame);
+                case WhileStatement -> whileStatement(frame);
+                case DoWhileStatement -> doWhileStatement(frame);
+                case ExpressionStatement -> expressionStatement(frame);
+                case Expression -> expression(frame);
+                case UnaryExpression -> unaryExpression(frame);
+                case CallMemberExpression -> callMemberExpression(frame);
+                case CallExpression -> callExpression(frame);
+                case Arguments -> arguments(frame);
+                case MemberExpression -> memberExpression(frame);
+                case PrimaryExpression -> primaryExpression();
+                case ParenthesizeExpression -> parenthesizeExpression(frame);
+                case NewExpression -> newExpression(frame);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Suspends {@code caller} until {@code rule} has been parsed; it is resumed at {@code step}.
+     */
+    private void call(Frame caller, int step, Rule rule) {
+        caller.step = step;
+        stack.push(new Frame(rule, ASSIGNMENT));
+    }
+
+    /**
+     * Parses an expression with the given minimum binding power, see {@link ParseContext}.
+     */
+    private void callExpression(Frame caller, int step, int minBindingPower) {
+        caller.step = step;
+        stack.push(new Frame(Rule.Expression, minBindingPower));
+    }
+
+    /**
+     * Resumes {@code frame} at {@code step} as if a nested rule had returned {@code value}.
+     */
+    private void skip(Frame frame, int step, Object value) {
+        frame.step = step;
+        result = value;
+    }
+
+    /**
+     * Replaces the current rule by {@code rule}, which returns to the current rule's caller.
+     */
+    private Frame replace(Rule rule) {
+        stack.pop();
+        Frame frame = new Frame(rule, ASSIGNMENT);
+        stack.push(frame);
+        return frame;
+    }
+
+    private void ret(Object value) {
+        stack.pop();
+        result = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> list(Object list) {
+        return (List<T>) list;
+    }
+
+    private void statement() {
+        if (tokenizer.isEOF()) {
+            ret(null);
+            return;
+        }
+        switch (tokenizer.peekType()) {
+            case IfKeyword -> replace(Rule.IfStatement);
+            case VariableKeyword -> replace(Rule.VariableStatement);
+            case OpenCurlyBracket -> replace(Rule.BlockStatement);
+            case ForKeyword -> replace(Rule.ForStatement);
+            case WhileKeyword -> replace(Rule.WhileStatement);
+            case DoKeyword -> replace(Rule.DoWhileStatement);
+            case DefKeyword -> replace(Rule.FunctionDeclaration);
+            case ReturnKeyword -> replace(Rule.ReturnStatement);
+            case ClassKeyword -> replace(Rule.ClassDeclaration);
+            default -> replace(Rule.ExpressionStatement);
+        }
+    }
+
+    private void ifStatement(Frame frame) {
+        switch (frame.step) {
+            case 0 -> {
+                tokenizer.eatToken(TokenType.IfKeyword);
+                call(frame, 1, Rule.ParenthesizeExpression);
+            }
+            case 1 -> {
+                frame.first = result;
+                call(frame, 2, Rule.Statement);
+            }
+            case 2 -> {
+                frame.second = result;
+                if (tokenizer.peekType() == TokenType.ElseKeyword) {
+                    tokenizer.eatToken(TokenType.ElseKeyword);
+                    call(frame, 3, Rule.Statement);
+                } else {
+                    skip(frame, 3, null);
+                }
+            }
+            default -> ret(new IfStatementASTNode(
+                    ASTNodeType.ifStatement,
+                    (ExpressionNode) frame.first,
+                    (StatementASTNode) frame.second,
+                    (StatementASTNode) result
+            ));
+        }
+    }
+
+    private void variableStatement(Frame frame) {
+        if (frame.step == 0) {
+            tokenizer.eatToken(TokenType.VariableKeyword);
+            frame.list = new ArrayList<>();
+        } else {
+            frame.list.add(new VariableDeclarationNode(
+                    ASTNodeType.VariableDeclaration,
+                    (IdentifierExpressionASTNode) frame.first,
+                    (ExpressionNode) result
+            ));
+            if (tokenizer.isEOF() || tokenizer.peekType() != TokenType.Comma) {
+                if (!tokenizer.isEOF() && tokenizer.peekType() == TokenType.Semicolon) tokenizer.eatToken(TokenType.Semicolon);
+                ret(new VariableStatementASTNode(ASTNodeType.VariableStatement, list(frame.list)));
+                return;
+            }
+        }
+
+        // VariableDeclaration
+        if (tokenizer.peekType() == TokenType.Comma) tokenizer.eatToken(TokenType.Comma);
+        frame.first = identifierExpression();
+
+        TokenType lookAheadType = tokenizer.peekType();
+        if (lookAheadType == TokenType.Comma || lookAheadType == TokenType.Semicolon) {
+            skip(frame, 1, null);
+        } else if (lookAheadType == TokenType.SimpleAssignment) {
+            tokenizer.eatToken(TokenType.SimpleAssignment);
+            callExpression(frame, 1, ASSIGNMENT);
+        } else {
+            throw tokenizer.syntaxError("Invalid syntax. Expected an assignment operator but found" + lookAheadType,
+                    TokenType.SimpleAssignment, lookAheadType);
+        }
+    }
+
+    private void blockStatement(Frame frame) {
+        if (frame.step == 0) {
+            if (tokenizer.peekType() == TokenType.CloseCurlyBracket) {
+                tokenizer.eatToken(TokenType.CloseCurlyBracket);
+                ret(new BlockStatementASTNode(ASTNodeType.BlockStatement, List.of()));
+                return;
+            }
+            if (tokenizer.peekType() == TokenType.OpenCurlyBracket) {
+                tokenizer.eatToken(TokenType.OpenCurlyBracket);
+            }
+            frame.list = new ArrayList<>();
+        } else if (result != null) {
+            frame.list.add(result);
+        }
+
+        if (!tokenizer.isEOF() && tokenizer.peekType() != TokenType.CloseCurlyBracket) {
+            call(frame, 1, Rule.Statement);
+            return;
+        }
+
+        if (tokenizer.peekType() == TokenType.CloseCurlyBracket) {
+            tokenizer.eatToken(TokenType.CloseCurlyBracket);
+        }
+        ret(new BlockStatementASTNode(ASTNodeType.BlockStatement, list(frame.list)));
+    }
+
+    private void functionDeclarationStatement(Frame frame) {
+        switch (frame.step) {
+            case 0 -> {
+                tokenizer.eatToken(TokenType.DefKeyword);
+                callExpression(frame, 1, ASSIGNMENT);
+                return;
+            }
+            case 1 -> {
+                frame.first = result;
+                tokenizer.eatToken(TokenType.OpenParenthesis);
+                frame.list = new ArrayList<>();
+            }
+            case 2 -> {
+                frame.list.add(result);
+                if (tokenizer.peekType() == TokenType.Comma) {
+                    tokenizer.eatToken(TokenType.Comma);
+                }
+            }
+            default -> {
+                ret(new FunctionDeclarationASTNode(
+                        ASTNodeType.FunctionDeclaration,
+                        (ExpressionNode) frame.first,
+                        list(frame.list),
+                        (StatementASTNode) result
+                ));
+                return;
+            }
+        }
+
+        if (tokenizer.peekType() != TokenType.CloseParenthesis) {
+            callExpression(frame, 2, ASSIGNMENT);
+        } else {
+            tokenizer.eatToken(TokenType.CloseParenthesis);
+            call(frame, 3, Rule.Statement);
+        }
+    }
+
+    private void returnStatement(Frame frame) {
+        if (frame.step == 0) {
+            tokenizer.eatToken(TokenType.ReturnKeyword);
+            if (tokenizer.peekType() == TokenType.Semicolon) {
+                skip(frame, 1, null);
+            } else {
+                callExpression(frame, 1, ASSIGNMENT);
+            }
+            return;
+        }
+
+        if (tokenizer.peekType() == TokenType.Semicolon) tokenizer.eatToken(TokenType.Semicolon);
+        ret(new ReturnStatementASTNode(
+                ASTNodeType.ReturnStatement,
+                (ExpressionNode) result
+        ));
+    }
+
+    private void classDeclarationStatement(Frame frame) {
+        if (frame.step == 0) {
+            tokenizer.eatToken(TokenType.ClassKeyword);
+            frame.first = identifierExpression();
+            if (tokenizer.peekType() == TokenType.ExtendsKeyword) {
+                tokenizer.eatToken(TokenType.ExtendsKeyword);
+                frame.second = identifierExpression();
+            }
+            call(frame, 1, Rule.Statement);
+            return;
+        }
+
+        ret(new ClassDeclarationASTNode(
+                ASTNodeType.ClassDeclaration,
+                (ExpressionNode) frame.first,
+                (ExpressionNode) frame.second,
+                (StatementASTNode) result
+        ));
+    }
+
+    private void forStatement(Frame frame) {
+        switch (frame.step) {
+            case 0 -> {
+                tokenizer.eatToken(TokenType.ForKeyword);
+                tokenizer.eatToken(TokenType.OpenParenthesis);
+                if (tokenizer.peekType() == TokenType.Semicolon) {
+                    skip(frame, 1, null);
+                } else if (tokenizer.peekType() == TokenType.VariableKeyword) {
+                    call(frame, 1, Rule.VariableStatement);
+                } else {
+                    call(frame, 1, Rule.ExpressionStatement);
+                }
+            }
+            case 1 -> {
+                frame.first = result;
+                if (tokenizer.peekType() == TokenType.Semicolon) {
+                    skip(frame, 2, null);
+                } else {
+                    callExpression(frame, 2, ASSIGNMENT);
+                }
+            }
+            case 2 -> {
+                frame.second = result;
+                if (tokenizer.peekType() == TokenType.Semicolon) {
+                    skip(frame, 3, null);
+                } else {
+                    callExpression(frame, 3, ASSIGNMENT);
+                }
+            }
+            case 3 -> {
+                frame.third = result;
+                // skip )
+                tokenizer.eatToken(TokenType.CloseParenthesis);
+                call(frame, 4, Rule.Statement);
+            }
+            default -> ret(new ForLoopIterationStatementASTNode(
+                    ASTNodeType.ForStatement,
+                    (StatementASTNode) frame.first,
+                    (ExpressionNode) frame.second,
+                    (ExpressionNode) frame.third,
+                    (StatementASTNode) result
+            ));
+        }
+    }
+
+    private void whileStatement(Frame frame) {
+        switch (frame.step) {
+            case 0 -> {
+                tokenizer.eatToken(TokenType.WhileKeyword);
+                call(frame, 1, Rule.ParenthesizeExpression);
+            }
+            case 1 -> {
+                frame.first = result;
+                call(frame, 2, Rule.Statement);
+            }
+            default -> ret(new IterationStatementASTNode(
+                    ASTNodeType.WhileStatement,
+                    (ExpressionNode) frame.first,
+                    (StatementASTNode) result
+            ));
+        }
+    }
+
+    private void doWhileStatement(Frame frame) {
+        switch (frame.step) {
+            case 0 -> {
+                tokenizer.eatToken(TokenType.DoKeyword);
+                call(frame, 1, Rule.Statement);
+            }
+            case 1 -> {
+                frame.first = result;
+                if (tokenizer.peekType() != TokenType.WhileKeyword) {
+                    throw tokenizer.syntaxError("Invalid syntax. Expected while keyword",
+                            TokenType.WhileKeyword, tokenizer.peekType());
+                }
+                tokenizer.eatToken(TokenType.WhileKeyword);
+                call(frame, 2, Rule.ParenthesizeExpression);
+            }
+            default -> ret(new IterationStatementASTNode(
+                    ASTNodeType.DoWhileStatement,
+                    (ExpressionNode) result,
+                    (StatementASTNode) frame.first
+            ));
+        }
+    }
+
+    private void expressionStatement(Frame frame) {
+        if (frame.step == 0) {
+            callExpression(frame, 1, ASSIGNMENT);
+            return;
+        }
+        ret(new ExpressionStatementASTNode(
+                ASTNodeType.ExpressionStatement,
+                (ExpressionNode) result
+        ));
+    }
+
+    /**
+     * The precedence climbing loop of {@link ParseContext}, resumed after each operand.
+     */
+    private void expression(Frame frame) {
+        switch (frame.step) {
+            case 0 -> {
+                frame.semicolonChecked = frame.minBindingPower > ADDITIVE;
+                call(frame, 1, Rule.UnaryExpression);
+                return;
+            }
+            case 1 -> frame.first = result;
+            default -> {
+                if (frame.bindingPower == ASSIGNMENT) {
+                    frame.first = new AssignmentExpressionASTNode(
+                            ASTNodeType.AssignmentExpression,
+                            frame.operator,
+                            (ExpressionNode) frame.first,
+                            (ExpressionNode) result
+                    );
+                } else {
+                    ASTNodeType type = frame.bindingPower <= LOGICAL_AND
+                            ? ASTNodeType.LogicalExpression
+                            : ASTNodeType.BinaryExpression;
+                    frame.first = new BinaryExpressionASTNode(
+                            type,
+                            frame.operator,
+                            (ExpressionNode) frame.first,
+                            (ExpressionNode) result
+                    );
+                }
+            }
+        }
+
+        while (true) {
+            TokenType operatorType = tokenizer.peekType();
+            int bindingPower = ParseContext.bindingPower(operatorType);
+
+            if (!frame.semicolonChecked && bindingPower < ADDITIVE) {
+                frame.semicolonChecked = true;
+                if (operatorType == TokenType.Semicolon) {
+                    tokenizer.eatToken(TokenType.Semicolon);
+                    continue;
+                }
+            } else if (frame.semicolonChecked && frame.minBindingPower <= ADDITIVE && bindingPower >= ADDITIVE) {
+                // After a ';' ended the operand, see ParseContext
+                ret(frame.first);
+                return;
+            }
+
+            if (bindingPower == NONE || bindingPower < frame.minBindingPower) {
+                ret(frame.first);
+                return;
+            }
+
+            frame.operator = ParseContext.binaryOperator(
+                    operatorType, tokenizer.tokenEnd() - tokenizer.tokenStart(), tokenizer.tokenText().charAt(0));
+            frame.bindingPower = bindingPower;
+
+            if (bindingPower == ASSIGNMENT) {
+                frame.first = ParseContext.assignmentTarget(tokenizer, (ExpressionNode) frame.first, operatorType);
+                tokenizer.advance();
+                callExpression(frame, 2, ASSIGNMENT);
+            } else {
+                tokenizer.advance();
+                callExpression(frame, 2, bindingPower >= ADDITIVE ? bindingPower + 1 : bindingPower);
+            }
+            return;
+        }
+    }
+
+    private void unaryExpression(Frame frame) {
+        if (frame.step == 1) {
+            ret(new UnaryExpressionASTNode(
+                    ASTNodeType.UnaryExpression,
+                    frame.operator,
+                    (ExpressionNode) result
+            ));
+            return;
+        }
+
+        Operator operator = ParseContext.unaryOperator(tokenizer.peekType());
+        if (operator != null) {
+            frame.operator = operator;
+            // skip operator token
+            tokenizer.skipNextToken();
+            call(frame, 1, Rule.UnaryExpression);
+        } else {
+            replace(Rule.CallMemberExpression);
+        }
+    }
+
+    private void callMemberExpression(Frame frame) {
+        if (frame.step == 0) {
+            if (tokenizer.peekType() == TokenType.SuperKeyword) {
+                replace(Rule.CallExpression).first = superExpression();
+            } else {
+                call(frame, 1, Rule.MemberExpression);
+            }
+            return;
+        }
+
+        if (tokenizer.peekType() == TokenType.OpenBracket) {
+            replace(Rule.CallExpression).first = result;
+        } else {
+            ret(result);
+        }
+    }
+
+    private void callExpression(Frame frame) {
+        if (frame.step == 0) {
+            call(frame, 1, Rule.Arguments);
+            return;
+        }
+
+        ExpressionNode callExpression = new CallExpressionASTNode(
+                ASTNodeType.CallExpression,
+                (ExpressionNode) frame.first,
+                list(result)
+        );
+
+        if (!tokenizer.isEOF() && tokenizer.peekType() == TokenType.OpenBracket) {
+            frame.first = callExpression;
+            call(frame, 1, Rule.Arguments);
+        } else {
+            ret(callExpression);
+        }
+    }
+
+    private void arguments(Frame frame) {
+        if (frame.step == 0) {
+            // Eat (
+            tokenizer.eatToken(TokenType.OpenParenthesis);
+            if (tokenizer.peekType() == TokenType.CloseParenthesis) {
+                // Eat )
+                tokenizer.eatToken(TokenType.CloseParenthesis);
+                ret(List.of());
+                return;
+            }
+            frame.list = new ArrayList<>();
+        } else {
+            frame.list.add(result);
+            // Eat comma
+            if (tokenizer.peekType() == TokenType.Comma) {
+                tokenizer.eatToken(TokenType.Comma);
+            }
+        }
+
+        if (tokenizer.peekType() != TokenType.CloseParenthesis) {
+            callExpression(frame, 1, ASSIGNMENT);
+        } else {
+            // Eat )
+            tokenizer.eatToken(TokenType.CloseParenthesis);
+            ret(frame.list);
+        }
+    }
+
+    private void memberExpression(Frame frame) {
+        switch (frame.step) {
+            case 0 -> {
+                call(frame, 1, Rule.PrimaryExpression);
+                return;
+            }
+            case 1 -> frame.first = result;
+            default -> {
+                tokenizer.eatToken(TokenType.CloseBracket);
+                frame.first = new MemberExpressionASTNode(
+                        ASTNodeType.MemberExpression,
+                        true,
+                        (ExpressionNode) frame.first,
+                        (ExpressionNode) result
+                );
+            }
+        }
+
+        while (tokenizer.peekType() == TokenType.Dot) {
+            tokenizer.eatToken(TokenType.Dot);
+            frame.first = new MemberExpressionASTNode(
+                    ASTNodeType.MemberExpression,
+                    false,
+                    (ExpressionNode) frame.first,
+                    identifierExpression()
+            );
+        }
+
+        if (tokenizer.peekType() == TokenType.OpenBracket) {
+            tokenizer.eatToken(TokenType.OpenBracket);
+            callExpression(frame, 2, ASSIGNMENT);
+        } else {
+            ret(frame.first);
+        }
+    }
+
+    private void primaryExpression() {
+        TokenType lookAheadType = tokenizer.peekType();
+        if (lookAheadType == null) {
+            throw tokenizer.syntaxError("Invalid syntax. Expected an expression but found the end of the input", null, null);
+        }
+        if (ParseContext.literals.contains(lookAheadType)) {
+            ret(new LiteralASTNode(ParseContext.literalType(lookAheadType), tokenizer.getNextTokenText()));
+        } else if (lookAheadType == TokenType.OpenParenthesis) {
+            replace(Rule.ParenthesizeExpression);
+        } else if (lookAheadType == TokenType.Identifier) {
+            ret(identifierExpression());
+        } else if (lookAheadType == TokenType.ThisKeyword) {
+            // eat 'this'
+            tokenizer.eatToken(TokenType.ThisKeyword);
+            ret(new BasicExpressionASTNode(ASTNodeType.ThisExpression));
+        } else if (lookAheadType == TokenType.NewKeyword) {
+            replace(Rule.NewExpression);
+        } else if (lookAheadType == TokenType.SuperKeyword) {
+            replace(Rule.CallMemberExpression);
+        } else {
+            throw tokenizer.syntaxError("Invalid syntax. Expected an expression but found " + lookAheadType, null, lookAheadType);
+        }
+    }
+
+    private void parenthesizeExpression(Frame frame) {
+        if (frame.step == 0) {
+            tokenizer.eatToken(TokenType.OpenParenthesis);
+            callExpression(frame, 1, ASSIGNMENT);
+            return;
+        }
+        tokenizer.eatToken(TokenType.CloseParenthesis);
+        ret(result);
+    }
+
+    private void newExpression(Frame frame) {
+        switch (frame.step) {
+            case 0 -> {
+                tokenizer.eatToken(TokenType.NewKeyword);
+                call(frame, 1, Rule.MemberExpression);
+            }
+            case 1 -> {
+                frame.first = result;
+                call(frame, 2, Rule.Arguments);
+            }
+            default -> ret(new CallExpressionASTNode(
+                    ASTNodeType.NewExpression,
+                    (ExpressionNode) frame.first,
+                    list(result)
+            ));
+        }
+    }
+
+    private IdentifierExpressionASTNode identifierExpression() {
+        return new IdentifierExpressionASTNode(ASTNodeType.Identifier, tokenizer.getNextTokenText());
+    }
+
+    private ExpressionNode superExpression() {
+        tokenizer.eatToken(TokenType.SuperKeyword);
+        return new BasicExpressionASTNode(ASTNodeType.Super);
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.batch;
+
+import org.example.AST.ProgramASTNode;
+import org.example.Parser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Parses many programs concurrently on an {@link Executor}.
+ * <p>
+ * Results are delivered in input order, one per input, and a failing input only fails its own
+ * result. At most {@code maxInFlight} inputs are being parsed or waiting to be delivered at any
+ * time: when the window is full the caller blocks until the oldest input is done, so a slow
+ * consumer holds back reading more inputs instead of letting results pile up.
+ * <p>
+ * Any executor can be used, e.g. a {@link ForkJoinPool} sized to the number of cores or, on JDK 21,
+ * a virtual-thread-per-task executor.
+ **/
+public class BatchParser {
+
+    private final Parser parser = new Parser();
+    private final Executor executor;
+    private final int maxInFlight;
+
+    /**
+     * Parses on the common fork/join pool, with twice as many inputs in flight as there are cores.
+     */
+    public BatchParser() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public BatchParser(Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive but was " + maxInFlight);
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public List<BatchResult> parseSources(Collection<String> sources) {
+        List<BatchResult> results = new ArrayList<>(sources.size());
+        parseSources(sources.iterator(), results::add);
+        return results;
+    }
+
+    public List<BatchResult> parseFiles(Collection<Path> files) {
+        List<BatchResult> results = new ArrayList<>(files.size());
+        parseFiles(files.iterator(), results::add);
+        return results;
+    }
+
+    /**
+     * Parses {@code sources} and hands each result to {@code consumer}, in order, on the calling
+     * thread. Sources are only pulled from the iterator when there is room in the window.
+     */
+    public void parseSources(Iterator<String> sources, Consumer<BatchResult> consumer) {
+        parse(sources, parser::parseToAst, consumer);
+    }
+
+    /**
+     * Parses {@code files} and hands each result to {@code consumer}, in order, on the calling
+     * thread. Files are only pulled from the iterator when there is room in the window.
+     */
+    public void parseFiles(Iterator<Path> files, Consumer<BatchResult> consumer) {
+        parse(files, parser::parseFileToAst, consumer);
+    }
+
+    private <T> void parse(Iterator<T> inputs, ParseFunction<T> parseFunction, Consumer<BatchResult> consumer) {
+        ArrayDeque<CompletableFuture<BatchResult>> inFlight = new ArrayDeque<>(maxInFlight);
+
+        while (inputs.hasNext()) {
+            if (inFlight.size() == maxInFlight) {
+                consumer.accept(inFlight.removeFirst().join());
+            }
+            T input = inputs.next();
+            inFlight.addLast(CompletableFuture.supplyAsync(() -> parseOne(input, parseFunction), executor));
+        }
+
+        while (!inFlight.isEmpty()) {
+            consumer.accept(inFlight.removeFirst().join());
+        }
+    }
+
+    private static <T> BatchResult parseOne(T input, ParseFunction<T> parseFunction) {
+        try {
+            return new BatchResult(parseFunction.parse(input), null);
+        } catch (Exception | StackOverflowError error) {
+            return new BatchResult(null, error);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ParseFunction<T> {
+        ProgramASTNode parse(T input) throws IOException;
+    }
+}
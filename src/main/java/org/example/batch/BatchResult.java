@@ -0,0 +1,15 @@
+package org.example.batch;
+
+import org.example.AST.ProgramASTNode;
+
+/**
+ * The outcome of parsing one input of a batch: either its program or the error that stopped it.
+ **/
+public record BatchResult(
+        ProgramASTNode program,
+        Throwable error
+) {
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,215 @@
+package org.example.binary;
+
+import org.example.AST.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the binary form written by {@link BinaryAstWriter} straight from a {@link ByteBuffer},
+ * for example one mapped from a file, without first copying it into an array.
+ * <p>
+ * Only the header and the positions of the strings are read up front. Each string is decoded the
+ * first time a node refers to it and then shared by all nodes that do, so {@link #read()} only
+ * allocates the records themselves and one string per distinct name or literal.
+ * {@link #statement(int)} decodes a single top-level statement; the statements before it are
+ * stepped over using their length prefixes, or decoded and dropped if there are none.
+ * <p>
+ * The buffer's position and limit are not changed. A reader keeps a cursor and must not be shared
+ * between threads.
+ */
+public class BinaryAstReader {
+
+    private static final ASTNodeType[] KINDS = ASTNodeType.values();
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private final ByteBuffer buffer;
+    private final int grammarVersion;
+    private final boolean lengthPrefixes;
+    private final int[] stringOffsets;
+    private final int[] stringLengths;
+    private final String[] strings;
+    private final int bodyStart;
+    private final int statementCount;
+    private int[] statementOffsets;
+    private int position;
+
+    /**
+     * Reads the header and string table of the encoding starting at {@code buffer}'s position.
+     *
+     * @throws IllegalArgumentException if the buffer does not start with a binary AST of a
+     *                                  supported format version
+     */
+    public BinaryAstReader(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        position = buffer.position();
+
+        for (byte magic : BinaryAstWriter.MAGIC) {
+            if (position >= this.buffer.limit() || this.buffer.get(position++) != magic) {
+                throw new IllegalArgumentException("Not a binary AST");
+            }
+        }
+        int formatVersion = varint();
+        if (formatVersion != BinaryAstWriter.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary AST format version " + formatVersion);
+        }
+        grammarVersion = varint();
+        lengthPrefixes = (this.buffer.get(position++) & BinaryAstWriter.LENGTH_PREFIXED) != 0;
+
+        int stringCount = varint();
+        stringOffsets = new int[stringCount];
+        stringLengths = new int[stringCount];
+        strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            stringLengths[i] = varint();
+            stringOffsets[i] = position;
+            position += stringLengths[i];
+        }
+        statementCount = varint();
+        bodyStart = position;
+    }
+
+    /**
+     * The {@link org.example.Parser#GRAMMAR_VERSION} of the parser that produced the tree.
+     */
+    public int grammarVersion() {
+        return grammarVersion;
+    }
+
+    public int statementCount() {
+        return statementCount;
+    }
+
+    /**
+     * Decodes the whole program.
+     */
+    public ProgramASTNode read() {
+        position = bodyStart;
+        List<StatementASTNode> body = new ArrayList<>(statementCount);
+        for (int i = 0; i < statementCount; i++) body.add(statement());
+        return new ProgramASTNode(ASTNodeType.Program, body);
+    }
+
+    /**
+     * Decodes the {@code index}th top-level statement only.
+     */
+    public StatementASTNode statement(int index) {
+        if (index < 0 || index >= statementCount) {
+            throw new IndexOutOfBoundsException("Statement " + index + " of " + statementCount);
+        }
+        if (statementOffsets == null) {
+            statementOffsets = new int[statementCount];
+            position = bodyStart;
+            for (int i = 0; i < statementCount; i++) {
+                statementOffsets[i] = position;
+                skipStatement();
+            }
+        }
+        position = statementOffsets[index];
+        return statement();
+    }
+
+    private StatementASTNode statement() {
+        ASTNodeType kind = kind();
+        if (kind == null) return null;
+        if (lengthPrefixes) position += Integer.BYTES;
+
+        return switch (kind) {
+            case ExpressionStatement -> new ExpressionStatementASTNode(kind, expression());
+            case BlockStatement -> {
+                int count = varint();
+                List<StatementASTNode> body = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) body.add(statement());
+                yield new BlockStatementASTNode(kind, body);
+            }
+            case VariableStatement -> {
+                int count = varint();
+                List<VariableDeclarationNode> declarations = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    IdentifierExpressionASTNode id = (IdentifierExpressionASTNode) expression();
+                    declarations.add(new VariableDeclarationNode(ASTNodeType.VariableDeclaration, id, expression()));
+                }
+                yield new VariableStatementASTNode(kind, declarations);
+            }
+            case ifStatement -> new IfStatementASTNode(kind, expression(), statement(), statement());
+            case WhileStatement, DoWhileStatement -> new IterationStatementASTNode(kind, expression(), statement());
+            case ForStatement -> new ForLoopIterationStatementASTNode(kind, statement(), expression(), expression(), statement());
+            case FunctionDeclaration -> new FunctionDeclarationASTNode(kind, expression(), expressions(), statement());
+            case ReturnStatement -> new ReturnStatementASTNode(kind, expression());
+            case ClassDeclaration -> new ClassDeclarationASTNode(kind, expression(), expression(), statement());
+            default -> throw new IllegalArgumentException("Expected a statement at " + position + " but found " + kind);
+        };
+    }
+
+    private ExpressionNode expression() {
+        ASTNodeType kind = kind();
+        if (kind == null) return null;
+
+        return switch (kind) {
+            case Identifier -> new IdentifierExpressionASTNode(kind, string());
+            case NumericLiteral, StringLiteral, BooleanLiteral, NullLiteral -> new LiteralASTNode(kind, string());
+            case ThisExpression, Super -> new BasicExpressionASTNode(kind);
+            case AssignmentExpression -> new AssignmentExpressionASTNode(kind, operator(), expression(), expression());
+            case BinaryExpression, LogicalExpression -> new BinaryExpressionASTNode(kind, operator(), expression(), expression());
+            case UnaryExpression -> new UnaryExpressionASTNode(kind, operator(), expression());
+            case MemberExpression -> new MemberExpressionASTNode(kind, buffer.get(position++) != 0, expression(), expression());
+            case CallExpression, NewExpression -> new CallExpressionASTNode(kind, expression(), expressions());
+            default -> throw new IllegalArgumentException("Expected an expression at " + position + " but found " + kind);
+        };
+    }
+
+    private List<ExpressionNode> expressions() {
+        int count = varint();
+        List<ExpressionNode> expressions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) expressions.add(expression());
+        return expressions;
+    }
+
+    private void skipStatement() {
+        if (!lengthPrefixes) {
+            statement();
+            return;
+        }
+        if (kind() != null) {
+            int length = buffer.getInt(position);
+            position += Integer.BYTES + length;
+        }
+    }
+
+    private ASTNodeType kind() {
+        int kind = varint();
+        return kind == BinaryAstWriter.ABSENT ? null : KINDS[kind - 1];
+    }
+
+    private Operator operator() {
+        return OPERATORS[varint()];
+    }
+
+    private String string() {
+        int index = varint();
+        String string = strings[index];
+        if (string == null) {
+            int offset = stringOffsets[index];
+            int length = stringLengths[index];
+            if (buffer.hasArray()) {
+                string = new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+            } else {
+                string = StandardCharsets.UTF_8.decode(buffer.slice(offset, length)).toString();
+            }
+            strings[index] = string;
+        }
+        return string;
+    }
+
+    private int varint() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte next = buffer.get(position++);
+            value |= (next & 0x7F) << shift;
+            if (next >= 0) return value;
+        }
+    }
+}
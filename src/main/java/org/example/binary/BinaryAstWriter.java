@@ -0,0 +1,236 @@
+package org.example.binary;
+
+import org.example.AST.*;
+import org.example.Parser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a {@link ProgramASTNode} in a compact binary form that {@link BinaryAstReader} decodes.
+ * <p>
+ * The encoding starts with a header: the magic bytes {@code PAST}, the format version and the
+ * {@link Parser#GRAMMAR_VERSION} as varints, and a flags byte. Then come a string table, holding
+ * every identifier name and literal value once as UTF-8, and the program's statements.
+ * <p>
+ * Every node is its kind as a varint, {@link ASTNodeType} ordinal plus one, followed by its
+ * children in the order of the record's components; a missing optional child is a single zero.
+ * Names and literals are string table indexes, operators their {@link Operator} ordinal, and
+ * lists a varint count followed by their elements. When written with length prefixes, every
+ * statement's kind is followed by the length of the rest of the statement as a 4-byte
+ * little-endian int, so a reader can step over a whole function or class without decoding it.
+ * <p>
+ * Literal values are written as text, and read back as strings. A writer holds no state and can
+ * be shared between threads.
+ */
+public class BinaryAstWriter {
+
+    static final byte[] MAGIC = {'P', 'A', 'S', 'T'};
+    static final int FORMAT_VERSION = 1;
+    static final int LENGTH_PREFIXED = 1;
+    static final int ABSENT = 0;
+
+    private final boolean lengthPrefixes;
+
+    /**
+     * A writer that prefixes every statement with its length.
+     */
+    public BinaryAstWriter() {
+        this(true);
+    }
+
+    /**
+     * @param lengthPrefixes whether statements are prefixed with their length, which costs 4 bytes
+     *                       per statement and lets readers skip them
+     */
+    public BinaryAstWriter(boolean lengthPrefixes) {
+        this.lengthPrefixes = lengthPrefixes;
+    }
+
+    public byte[] write(ProgramASTNode program) {
+        Encoder encoder = new Encoder();
+        encoder.program(program);
+        return encoder.finish();
+    }
+
+    /**
+     * Writes the encoding of {@code program} to {@code output}, which is not closed.
+     */
+    public void write(ProgramASTNode program, OutputStream output) throws IOException {
+        output.write(write(program));
+    }
+
+    private final class Encoder {
+        private final Bytes body = new Bytes(256);
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+        void program(ProgramASTNode program) {
+            body.varint(program.body().size());
+            for (StatementASTNode statement : program.body()) statement(statement);
+        }
+
+        byte[] finish() {
+            Bytes output = new Bytes(body.size + 16 * strings.size() + 16);
+            output.bytes(MAGIC, MAGIC.length);
+            output.varint(FORMAT_VERSION);
+            output.varint(Parser.GRAMMAR_VERSION);
+            output.add(lengthPrefixes ? LENGTH_PREFIXED : 0);
+            output.varint(strings.size());
+            for (String string : strings) {
+                byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                output.varint(utf8.length);
+                output.bytes(utf8, utf8.length);
+            }
+            output.bytes(body.data, body.size);
+            return Arrays.copyOf(output.data, output.size);
+        }
+
+        private void statement(StatementASTNode statement) {
+            if (statement == null) {
+                body.add(ABSENT);
+                return;
+            }
+            if (statement instanceof LazyBlockStatementASTNode lazy) statement = lazy.block();
+            kind(statement.type());
+            int lengthAt = body.size;
+            if (lengthPrefixes) body.int32(0);
+
+            if (statement instanceof ExpressionStatementASTNode expressionStatement) {
+                expression(expressionStatement.expression());
+            } else if (statement instanceof BlockStatementASTNode block) {
+                body.varint(block.body().size());
+                for (StatementASTNode child : block.body()) statement(child);
+            } else if (statement instanceof VariableStatementASTNode variableStatement) {
+                body.varint(variableStatement.declarations().size());
+                for (VariableDeclarationNode declaration : variableStatement.declarations()) {
+                    expression(declaration.id());
+                    expression(declaration.init());
+                }
+            } else if (statement instanceof IfStatementASTNode ifStatement) {
+                expression(ifStatement.test());
+                statement(ifStatement.consequent());
+                statement(ifStatement.alternate());
+            } else if (statement instanceof IterationStatementASTNode iteration) {
+                expression(iteration.test());
+                statement(iteration.body());
+            } else if (statement instanceof ForLoopIterationStatementASTNode forStatement) {
+                statement(forStatement.init());
+                expression(forStatement.test());
+                expression(forStatement.update());
+                statement(forStatement.body());
+            } else if (statement instanceof FunctionDeclarationASTNode function) {
+                expression(function.name());
+                expressions(function.params());
+                statement(function.body());
+            } else if (statement instanceof ReturnStatementASTNode returnStatement) {
+                expression(returnStatement.argument());
+            } else if (statement instanceof ClassDeclarationASTNode classDeclaration) {
+                expression(classDeclaration.id());
+                expression(classDeclaration.superClass());
+                statement(classDeclaration.body());
+            }
+
+            if (lengthPrefixes) body.int32At(lengthAt, body.size - lengthAt - Integer.BYTES);
+        }
+
+        private void expression(ExpressionNode expression) {
+            if (expression == null) {
+                body.add(ABSENT);
+                return;
+            }
+            kind(expression.type());
+
+            if (expression instanceof IdentifierExpressionASTNode identifier) {
+                body.varint(string(identifier.name()));
+            } else if (expression instanceof LiteralASTNode literal) {
+                body.varint(string(String.valueOf(literal.value())));
+            } else if (expression instanceof AssignmentExpressionASTNode assignment) {
+                body.varint(assignment.operator().ordinal());
+                expression(assignment.left());
+                expression(assignment.right());
+            } else if (expression instanceof BinaryExpressionASTNode binary) {
+                body.varint(binary.operator().ordinal());
+                expression(binary.left());
+                expression(binary.right());
+            } else if (expression instanceof UnaryExpressionASTNode unary) {
+                body.varint(unary.operator().ordinal());
+                expression(unary.argument());
+            } else if (expression instanceof MemberExpressionASTNode member) {
+                body.add(member.computed() ? 1 : 0);
+                expression(member.object());
+                expression(member.property());
+            } else if (expression instanceof CallExpressionASTNode call) {
+                expression(call.callee());
+                expressions(call.arguments());
+            } else if (expression instanceof NewExpressionASTNode newExpression) {
+                expression(newExpression.callee());
+                expressions(newExpression.arguments());
+            }
+        }
+
+        private void expressions(List<ExpressionNode> expressions) {
+            body.varint(expressions.size());
+            for (ExpressionNode expression : expressions) expression(expression);
+        }
+
+        private void kind(ASTNodeType type) {
+            body.varint(type.ordinal() + 1);
+        }
+
+        private int string(String value) {
+            Integer index = stringIndexes.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.add(value);
+                stringIndexes.put(value, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * A growable byte array.
+     */
+    private static final class Bytes {
+        byte[] data;
+        int size;
+
+        Bytes(int capacity) {
+            data = new byte[capacity];
+        }
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = (byte) value;
+        }
+
+        void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                add((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            add(value);
+        }
+
+        void int32(int value) {
+            for (int i = 0; i < Integer.BYTES; i++) add(value >>> (8 * i));
+        }
+
+        void int32At(int index, int value) {
+            for (int i = 0; i < Integer.BYTES; i++) data[index + i] = (byte) (value >>> (8 * i));
+        }
+
+        void bytes(byte[] bytes, int length) {
+            if (size + length > data.length) data = Arrays.copyOf(data, Math.max(size + length, size * 2));
+            System.arraycopy(bytes, 0, data, size, length);
+            size += length;
+        }
+    }
+}
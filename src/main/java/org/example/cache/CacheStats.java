@@ -0,0 +1,20 @@
+package org.example.cache;
+
+/**
+ * A snapshot of a {@link ParseCache}'s counters.
+ **/
+public record CacheStats(
+        long hitCount,
+        long missCount,
+        long evictionCount,
+        int entryCount,
+        long weight
+) {
+    /**
+     * Share of lookups served from the cache, or 0 before the first lookup.
+     */
+    public double hitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.cache;
+
+import org.example.Parser;
+
+/**
+ * Identifies a parse result by the content it was parsed from: a 128-bit hash of the input,
+ * its length, and the {@link Parser#GRAMMAR_VERSION} that parsed it.
+ * <p>
+ * The hash is MurmurHash3 (x64, 128-bit) run over the input's UTF-16 code units, so hashing never
+ * copies or encodes the input.
+ **/
+record ContentKey(
+        long high,
+        long low,
+        int length,
+        int grammarVersion
+) {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    static ContentKey of(String input) {
+        int length = input.length();
+        long h1 = 0;
+        long h2 = 0;
+
+        int blockEnd = length & ~7;
+        for (int i = 0; i < blockEnd; i += 8) {
+            h1 ^= mixK1(chars(input, i, 4));
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(chars(input, i + 4, 4));
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int remaining = length - blockEnd;
+        if (remaining > 4) h2 ^= mixK2(chars(input, blockEnd + 4, remaining - 4));
+        if (remaining > 0) h1 ^= mixK1(chars(input, blockEnd, Math.min(remaining, 4)));
+
+        h1 ^= length * 2L;
+        h2 ^= length * 2L;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+
+        return new ContentKey(h1, h2, length, Parser.GRAMMAR_VERSION);
+    }
+
+    /**
+     * The key as a fixed-length hexadecimal string, usable as a file name.
+     */
+    String toHex() {
+        return String.format("%016x%016x-%x-v%d", high, low, length, grammarVersion);
+    }
+
+    private static long chars(String input, int from, int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value |= (long) input.charAt(from + i) << (16 * i);
+        }
+        return value;
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.cache;
+
+import org.example.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A cache of {@link Parser#parse(String)} results in a local directory, so they survive restarts.
+ * <p>
+ * Each result is stored gzipped in a file named after the input's {@link ContentKey}, which
+ * includes the {@link Parser#GRAMMAR_VERSION}; a warm start reads and inflates the file instead of
+ * parsing. Files are written to a temporary file in the same directory and then atomically moved in
+ * place, so any number of threads and processes can share a directory: readers only ever see
+ * complete entries, and writers racing on the same input write the same bytes.
+ * <p>
+ * When the files written go over {@code maxSize} bytes, the least recently used entries are
+ * deleted until the directory is back under 90% of it. A hit refreshes an entry's modification
+ * time for that purpose. Temporary files left behind by a writer that died are deleted when a cache
+ * is created on the directory. The cache is best effort: an entry that cannot be read or written is
+ * treated as a miss and never fails the parse.
+ **/
+public class DiskParseCache {
+
+    private static final String SUFFIX = ".json.gz";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    // Older temporary files were left by a writer that died; younger ones may still be written to
+    private static final Duration STALE_TEMPORARY_AGE = Duration.ofMinutes(10);
+    private static final double LOW_WATER_MARK = 0.9;
+
+    private final Parser parser = new Parser();
+    private final Path directory;
+    private final long maxSize;
+
+    // Approximate, as other processes write to the same directory; corrected by every eviction
+    private long size;
+    private int entryCount;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param directory where entries are stored, created if missing
+     * @param maxSize   upper bound, in bytes, of the entries kept in {@code directory}
+     */
+    public DiskParseCache(Path directory, long maxSize) throws IOException {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive but was " + maxSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        deleteStaleTemporaries();
+        for (Entry entry : entries()) {
+            size += entry.size();
+            entryCount++;
+        }
+    }
+
+    /**
+     * Same as {@link Parser#parse(String)}, read from the cache directory when {@code input} was
+     * parsed before.
+     */
+    public String parse(String input) {
+        ContentKey key = ContentKey.of(input);
+        Path file = directory.resolve(key.toHex() + SUFFIX);
+
+        String json = read(file);
+        synchronized (this) {
+            if (json != null) hitCount++;
+            else missCount++;
+        }
+        if (json != null) return json;
+
+        json = parser.parse(input);
+        if (json != null) write(file, json);
+        return json;
+    }
+
+    /**
+     * Same as {@link #parse(String)} for the UTF-8 encoded program in {@code file}.
+     */
+    public String parseFile(Path file) throws IOException {
+        return parse(Files.readString(file));
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, entryCount, size);
+    }
+
+    private static String read(Path file) {
+        String json;
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            json = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException evictedMeanwhile) {
+            // Still a hit; the entry is simply no longer protected from eviction
+        }
+        return json;
+    }
+
+    private void write(Path file, String json) {
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), TEMPORARY_SUFFIX);
+            try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                output.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            long written = Files.size(temporary);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temporary = null;
+
+            boolean full;
+            synchronized (this) {
+                size += written;
+                entryCount++;
+                full = size > maxSize;
+            }
+            if (full) evict();
+        } catch (IOException | UncheckedIOException exception) {
+            // Not cached; the next parse of this input tries again
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private synchronized void evict() throws IOException {
+        List<Entry> entries = entries();
+        entries.sort(Comparator.comparing(Entry::lastModified));
+
+        long total = 0;
+        for (Entry entry : entries) total += entry.size();
+
+        int remaining = entries.size();
+        for (Entry entry : entries) {
+            if (total <= maxSize * LOW_WATER_MARK) break;
+            try {
+                Files.delete(entry.file());
+                evictionCount++;
+            } catch (NoSuchFileException alreadyEvicted) {
+                // Evicted by another process
+            }
+            total -= entry.size();
+            remaining--;
+        }
+        size = total;
+        entryCount = remaining;
+    }
+
+    /**
+     * Deletes the temporary files of writes that never completed, which are not entries and would
+     * otherwise stay in the directory forever.
+     */
+    private void deleteStaleTemporaries() throws IOException {
+        FileTime staleBefore = FileTime.fromMillis(System.currentTimeMillis() - STALE_TEMPORARY_AGE.toMillis());
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(TEMPORARY_SUFFIX)) continue;
+                try {
+                    if (Files.getLastModifiedTime(file).compareTo(staleBefore) < 0) Files.delete(file);
+                } catch (NoSuchFileException alreadyDeleted) {
+                    // Moved in place or deleted by another process
+                }
+            }
+        }
+    }
+
+    private List<Entry> entries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(SUFFIX)) continue;
+                try {
+                    entries.add(new Entry(file, Files.size(file), Files.getLastModifiedTime(file)));
+                } catch (NoSuchFileException alreadyEvicted) {
+                    // Evicted by another process while listing
+                }
+            }
+        }
+        return entries;
+    }
+
+    private record Entry(Path file, long size, FileTime lastModified) {
+    }
+}
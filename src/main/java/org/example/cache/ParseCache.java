@@ -0,0 +1,93 @@
+package org.example.cache;
+
+import org.example.Parser;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An in-memory cache of {@link Parser#parse(String)} results, keyed by the content of the input.
+ * <p>
+ * Inputs are identified by a {@link ContentKey}, so a repeated parse of unchanged text costs one
+ * pass of hashing and a map lookup, and a new {@link Parser#GRAMMAR_VERSION} never reuses old
+ * results. Entries are weighed by the bytes their JSON occupies; once the total goes over
+ * {@code maxWeight} the least recently used entries are evicted. Inputs that fail to parse are
+ * not cached.
+ * <p>
+ * A cache is safe to share between threads. Parsing happens outside the lock, so two threads
+ * missing on the same input at once both parse it.
+ **/
+public class ParseCache {
+
+    // Approximate bytes held per entry besides the JSON characters: key, map node, String header
+    private static final long ENTRY_OVERHEAD = 96;
+
+    private final Parser parser = new Parser();
+    private final long maxWeight;
+    private final LinkedHashMap<ContentKey, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maxWeight upper bound, in bytes, of the JSON held by the cache
+     */
+    public ParseCache(long maxWeight) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive but was " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Same as {@link Parser#parse(String)}, served from the cache when {@code input} was parsed before.
+     */
+    public String parse(String input) {
+        ContentKey key = ContentKey.of(input);
+        synchronized (this) {
+            String json = entries.get(key);
+            if (json != null) {
+                hitCount++;
+                return json;
+            }
+            missCount++;
+        }
+
+        String json = parser.parse(input);
+        if (json != null) put(key, json);
+        return json;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, entries.size(), weight);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    private synchronized void put(ContentKey key, String json) {
+        long entryWeight = weigh(json);
+        if (entryWeight > maxWeight) return;
+
+        String previous = entries.put(key, json);
+        weight += entryWeight;
+        if (previous != null) weight -= weigh(previous);
+
+        Iterator<Map.Entry<ContentKey, String>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight) {
+            Map.Entry<ContentKey, String> entry = eldest.next();
+            weight -= weigh(entry.getValue());
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    private static long weigh(String json) {
+        return ENTRY_OVERHEAD + 2L * json.length();
+    }
+}
@@ -1,8 +1,40 @@
 package org.example.exceptions;
 
+import org.example.token.TokenType;
+
 public class SyntaxException extends RuntimeException {
 
+    private final int offset;
+    private final TokenType expected;
+    private final TokenType found;
+
     public SyntaxException(String message) {
-        super(message);
+        this(message, -1, null, null, true);
+    }
+
+    /**
+     * @param offset     where in the input the error was found, or -1 if unknown
+     * @param expected   the token that was expected, or null if several would do
+     * @param found      the token that was found, or null at the end of the input or where no
+     *                   token could be recognised
+     * @param stackTrace whether to capture a stack trace, which is most of the cost of the exception
+     */
+    public SyntaxException(String message, int offset, TokenType expected, TokenType found, boolean stackTrace) {
+        super(message, null, true, stackTrace);
+        this.offset = offset;
+        this.expected = expected;
+        this.found = found;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public TokenType getExpected() {
+        return expected;
+    }
+
+    public TokenType getFound() {
+        return found;
     }
 }
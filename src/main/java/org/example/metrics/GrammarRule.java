@@ -0,0 +1,32 @@
+package org.example.metrics;
+
+/**
+ * The grammar rules whose invocations are counted in {@link ParseStatistics#ruleCounts()}, one
+ * per method of the recursive descent parser.
+ */
+public enum GrammarRule {
+    Statement,
+    IfStatement,
+    VariableStatement,
+    VariableDeclaration,
+    BlockStatement,
+    ForStatement,
+    WhileStatement,
+    DoWhileStatement,
+    FunctionDeclaration,
+    ReturnStatement,
+    ClassDeclaration,
+
+    Expression,
+    UnaryExpression,
+    CallExpression,
+    Arguments,
+    MemberExpression,
+    PrimaryExpression,
+    Literal,
+    ParenthesizedExpression,
+    Identifier,
+    ThisExpression,
+    NewExpression,
+    Super
+}
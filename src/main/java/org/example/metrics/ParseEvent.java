@@ -0,0 +1,42 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for each program parsed into a tree, carrying its
+ * {@link ParseStatistics}. Disabled unless a recording enables {@code org.example.Parse}.
+ */
+@Name("org.example.Parse")
+@Label("Parse")
+@Category("Parser")
+@Description("A program parsed into an AST")
+public class ParseEvent extends Event {
+
+    @Label("Characters")
+    @DataAmount(DataAmount.BYTES)
+    public long characters;
+
+    @Label("Tokens")
+    public long tokens;
+
+    @Label("Rescans")
+    @Description("Tokens recognised more than once or not consumed")
+    public long rescans;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Lex Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lexTime;
+
+    @Label("Rule Counts")
+    @Description("Invocations of each grammar rule, as rule=count pairs")
+    public String ruleCounts;
+}
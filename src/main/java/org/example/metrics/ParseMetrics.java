@@ -0,0 +1,37 @@
+package org.example.metrics;
+
+/**
+ * Receives measurements of the parses and serializations done by a {@link org.example.Parser}
+ * created with it, for example to feed them to a monitoring system.
+ * <p>
+ * Measurements are only taken when a parser has metrics other than {@link #NONE}, or when the
+ * {@link ParseEvent} or {@link SerializeEvent} Flight Recorder events are enabled; otherwise a
+ * parse costs one check more than without instrumentation. While they are taken, tokenizing is
+ * timed and every grammar rule counted, which slows parsing down noticeably.
+ * <p>
+ * A parser can be shared between threads, so an implementation must be thread-safe. It is called
+ * on the thread that parsed, once the parse is over, and should return quickly.
+ */
+public interface ParseMetrics {
+
+    /**
+     * Metrics that discard everything, the default.
+     */
+    ParseMetrics NONE = new ParseMetrics() {
+    };
+
+    /**
+     * Called after a program has been parsed into a tree.
+     */
+    default void parsed(ParseStatistics statistics) {
+    }
+
+    /**
+     * Called after a tree has been written as JSON.
+     *
+     * @param nanos      time spent writing
+     * @param characters length of the JSON
+     */
+    default void serialized(long nanos, long characters) {
+    }
+}
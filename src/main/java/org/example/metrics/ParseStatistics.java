@@ -0,0 +1,45 @@
+package org.example.metrics;
+
+import java.util.Map;
+
+/**
+ * What went into one parse, as reported to {@link ParseMetrics#parsed}.
+ *
+ * @param characters number of characters up to the end of the last token
+ * @param tokens     number of tokens consumed
+ * @param scans      number of times a token was recognised; more than {@code tokens} when the
+ *                   parser looked ahead at tokens it did not consume, or at the same one twice
+ * @param nodes      number of nodes in the tree
+ * @param lexNanos   time spent recognising tokens
+ * @param parseNanos time spent parsing, not counting {@code lexNanos}
+ * @param ruleCounts how often each grammar rule was invoked
+ */
+public record ParseStatistics(
+        long characters,
+        long tokens,
+        long scans,
+        long nodes,
+        long lexNanos,
+        long parseNanos,
+        Map<GrammarRule, Long> ruleCounts
+) {
+    /**
+     * Tokens recognised more than once or not consumed.
+     */
+    public long rescans() {
+        return Math.max(0, scans - tokens);
+    }
+
+    public double tokensPerSecond() {
+        return perSecond(tokens);
+    }
+
+    public double nodesPerSecond() {
+        return perSecond(nodes);
+    }
+
+    private double perSecond(long count) {
+        long nanos = lexNanos + parseNanos;
+        return nanos == 0 ? 0 : count * 1e9 / nanos;
+    }
+}
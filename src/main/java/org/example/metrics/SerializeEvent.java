@@ -0,0 +1,23 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event for each tree written as JSON. Disabled unless a recording enables
+ * {@code org.example.Serialize}.
+ */
+@Name("org.example.Serialize")
+@Label("Serialize")
+@Category("Parser")
+@Description("An AST written as JSON")
+public class SerializeEvent extends Event {
+
+    @Label("Characters")
+    @DataAmount(DataAmount.BYTES)
+    public long characters;
+}
@@ -0,0 +1,36 @@
+package org.example.token;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link CharSource} that scans UTF-8 encoded bytes in place, typically a memory-mapped file.
+ * <p>
+ * Offsets are byte offsets. Every byte of a token outside a string literal is ASCII, so each byte
+ * is handed to the tokenizer as one character. Bytes of multi-byte sequences never match a token
+ * or a quote, and are only decoded when the text of a string literal is materialised.
+ **/
+final class ByteBufferSource extends CharSource {
+    private final ByteBuffer buffer;
+
+    ByteBufferSource(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    int charAt(int offset) {
+        return offset < buffer.limit() ? buffer.get(offset) & 0xFF : -1;
+    }
+
+    @Override
+    String text(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    String remainder(int offset) {
+        return text(offset, buffer.limit());
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.token;
+
+/**
+ * The characters a {@link Tokenizer} reads from, addressed by absolute offset from the start of
+ * the input.
+ * <p>
+ * Offsets are only ever read in increasing order of token start, which lets streaming sources
+ * drop everything before the last {@link #release(int) released} offset.
+ **/
+abstract class CharSource {
+
+    /**
+     * Returns the character at {@code offset}, or -1 if the input ends before it.
+     */
+    abstract int charAt(int offset);
+
+    /**
+     * Returns the text between {@code start} (inclusive) and {@code end} (exclusive).
+     * Every character in the range must have been read with {@link #charAt(int)} already.
+     */
+    abstract String text(int start, int end);
+
+    /**
+     * Returns the rest of the input from {@code offset}, for error messages.
+     */
+    abstract String remainder(int offset);
+
+    /**
+     * Tells the source that characters before {@code offset} will not be read again.
+     */
+    void release(int offset) {
+    }
+
+    boolean startsWith(String prefix, int offset) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (charAt(offset + i) != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the offset of the first {@code c} at or after {@code from}, or -1 if there is none.
+     */
+    int indexOf(char c, int from) {
+        for (int offset = from; ; offset++) {
+            int current = charAt(offset);
+            if (current == c) return offset;
+            if (current < 0) return -1;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.token;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A {@link CharSource} that pulls characters from a {@link Reader} into a sliding window.
+ * <p>
+ * The window only keeps characters from the last released offset onwards, so memory is bounded by
+ * the buffer size rather than the size of the input. It only grows when a single token, such as a
+ * long string literal, does not fit.
+ **/
+final class ReaderSource extends CharSource {
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private char[] buffer;
+    private int bufferStart = 0;
+    private int length = 0;
+    private int released = 0;
+    private boolean endOfInput = false;
+
+    ReaderSource(Reader reader, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive but was " + bufferSize);
+        }
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    @Override
+    int charAt(int offset) {
+        int index = offset - bufferStart;
+        if (index < 0) {
+            throw new IllegalStateException("Offset " + offset + " has already been released");
+        }
+        while (index >= length) {
+            if (!fill()) return -1;
+            index = offset - bufferStart;
+        }
+        return buffer[index];
+    }
+
+    @Override
+    String text(int start, int end) {
+        return new String(buffer, start - bufferStart, end - start);
+    }
+
+    @Override
+    String remainder(int offset) {
+        int index = Math.max(offset - bufferStart, 0);
+        return new String(buffer, index, Math.max(length - index, 0));
+    }
+
+    @Override
+    void release(int offset) {
+        released = Math.max(released, offset);
+    }
+
+    /**
+     * Reads more characters into the window, first dropping released characters or growing the
+     * buffer if it is full. Returns false once the reader is exhausted.
+     */
+    private boolean fill() {
+        if (endOfInput) return false;
+
+        if (length == buffer.length) {
+            int dropped = released - bufferStart;
+            if (dropped > 0) {
+                System.arraycopy(buffer, dropped, buffer, 0, length - dropped);
+                length -= dropped;
+                bufferStart = released;
+            } else {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+
+        try {
+            int read = reader.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                endOfInput = true;
+                return false;
+            }
+            length += read;
+            return true;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
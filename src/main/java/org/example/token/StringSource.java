@@ -0,0 +1,51 @@
+package org.example.token;
+
+/**
+ * A {@link CharSource} over a program held in memory as a single String, or over a range of one.
+ **/
+final class StringSource extends CharSource {
+    private final String input;
+    private final int end;
+
+    StringSource(String input) {
+        this(input, input.length());
+    }
+
+    /**
+     * A source whose input ends at {@code end}. Offsets are still those of {@code input}.
+     */
+    StringSource(String input, int end) {
+        this.input = input;
+        this.end = end;
+    }
+
+    @Override
+    int charAt(int offset) {
+        return offset < end ? input.charAt(offset) : -1;
+    }
+
+    @Override
+    String text(int start, int end) {
+        return input.substring(start, end);
+    }
+
+    /**
+     * Returns the rest of the whole String, so that an error message is the one a parse of all of
+     * it gives.
+     */
+    @Override
+    String remainder(int offset) {
+        return input.substring(offset);
+    }
+
+    @Override
+    boolean startsWith(String prefix, int offset) {
+        return offset + prefix.length() <= end && input.startsWith(prefix, offset);
+    }
+
+    @Override
+    int indexOf(char c, int from) {
+        int offset = input.indexOf(c, from);
+        return offset < end ? offset : -1;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.token;
+
+/**
+ * Interns the identifier names of one input, so every occurrence of a name shares one String.
+ * <p>
+ * Names are hashed straight from the {@link CharSource} and looked up by open addressing, so a name
+ * that was seen before is returned without creating a String; only its first occurrence is copied
+ * out of the input. Identifiers are ASCII, so the characters of a name and the units of the source
+ * it came from always compare one to one.
+ **/
+final class SymbolTable {
+
+    private String[] names = new String[64];
+    private int[] hashes = new int[64];
+    private int size;
+
+    String intern(CharSource source, int start, int end) {
+        int hash = 0;
+        for (int offset = start; offset < end; offset++) {
+            hash = 31 * hash + source.charAt(offset);
+        }
+
+        int mask = names.length - 1;
+        int slot = spread(hash) & mask;
+        for (String name = names[slot]; name != null; name = names[slot]) {
+            if (hashes[slot] == hash && name.length() == end - start && source.startsWith(name, start)) {
+                return name;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        String name = source.text(start, end);
+        names[slot] = name;
+        hashes[slot] = hash;
+        if (++size * 2 > names.length) grow();
+        return name;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        String[] oldNames = names;
+        int[] oldHashes = hashes;
+        names = new String[oldNames.length * 2];
+        hashes = new int[oldNames.length * 2];
+
+        int mask = names.length - 1;
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] == null) continue;
+            int slot = spread(oldHashes[i]) & mask;
+            while (names[slot] != null) slot = (slot + 1) & mask;
+            names[slot] = oldNames[i];
+            hashes[slot] = oldHashes[i];
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.token;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+
+/**
+ * All tokens of an input in three parallel primitive arrays: type ordinals, start offsets and
+ * lengths, filled by {@link Tokenizer#tokenizeAll()} in one pass.
+ * <p>
+ * A token is an {@code int} index. Offsets are positions in the tokenizer's input: characters for
+ * a String or a Reader, bytes for a ByteBuffer of UTF-8. No {@link Token} and no String is created
+ * for any token; the text of one is the input between {@link #start} and {@link #end}.
+ * <p>
+ * Tokens are not packed one per {@code long}: a 31-bit start and a 31-bit length already take 62
+ * of its bits, which leaves too few for the type. Separate arrays keep the full range of offsets,
+ * and a consumer that only needs types or offsets reads just that array.
+ * <p>
+ * {@link #iterator()}, {@link #spliterator()} and {@link #indexes()} go over the token indexes
+ * without boxing them, and the spliterator splits evenly for parallel streams. A token array is
+ * immutable and can be shared between threads.
+ */
+public final class TokenArray {
+
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private byte[] types;
+    private int[] starts;
+    private int[] lengths;
+    private int size;
+
+    TokenArray(int capacity) {
+        types = new byte[capacity];
+        starts = new int[capacity];
+        lengths = new int[capacity];
+    }
+
+    /**
+     * Tokenizes the whole of {@code input}.
+     *
+     * @throws org.example.exceptions.SyntaxException at the first character no token starts with
+     */
+    public static TokenArray of(String input) {
+        Tokenizer tokenizer = new Tokenizer();
+        tokenizer.init(input);
+        return tokenizer.tokenizeAll();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public TokenType type(int index) {
+        return TYPES[types[Objects.checkIndex(index, size)]];
+    }
+
+    public int start(int index) {
+        return starts[Objects.checkIndex(index, size)];
+    }
+
+    public int length(int index) {
+        return lengths[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Offset just past the last character of the token at {@code index}.
+     */
+    public int end(int index) {
+        return start(index) + lengths[index];
+    }
+
+    /**
+     * The {@link TokenType} ordinal of every token. The array is the token array's own and must
+     * not be modified.
+     */
+    public byte[] types() {
+        return types;
+    }
+
+    /**
+     * The start offset of every token. The array is the token array's own and must not be modified.
+     */
+    public int[] starts() {
+        return starts;
+    }
+
+    /**
+     * The length of every token. The array is the token array's own and must not be modified.
+     */
+    public int[] lengths() {
+        return lengths;
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return indexes().iterator();
+    }
+
+    public Spliterator.OfInt spliterator() {
+        return indexes().spliterator();
+    }
+
+    /**
+     * The indexes of all tokens, in input order.
+     */
+    public IntStream indexes() {
+        return IntStream.range(0, size);
+    }
+
+    void add(TokenType type, int start, int end) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        types[size] = (byte) type.ordinal();
+        starts[size] = start;
+        lengths[size] = end - start;
+        size++;
+    }
+
+    /**
+     * Drops the capacity the arrays grew but did not use, so they hold exactly {@link #size()} tokens.
+     */
+    TokenArray trim() {
+        types = Arrays.copyOf(types, size);
+        starts = Arrays.copyOf(starts, size);
+        lengths = Arrays.copyOf(lengths, size);
+        return this;
+    }
+}
@@ -2,10 +2,9 @@ package org.example.token;
 
 import org.example.exceptions.SyntaxException;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Objects;
 
 /**
  * Group individual characters into tokens.
@@ -16,111 +15,544 @@ import java.util.regex.Pattern;
  * }
  * <p>
  * Note that a tokenizer doesn't bother about if the syntax is correct or not.
+ * <p>
+ * Tokens are recognised in a single pass by switching on the current character. A word is scanned
+ * in full and then looked up in a perfect hash table of keywords, so no regex is compiled, the input
+ * is never copied, and an identifier such as {@code letter} is not mistaken for {@code let}.
+ * <p>
+ * The next token is kept as a type and a pair of offsets until the cursor moves, so the parser can
+ * peek at the same position as often as it likes and every token is still scanned exactly once.
+ * Its text is only materialised on request, and only identifiers and literals allocate a String.
+ * Identifier names are interned in a {@link SymbolTable} for the current input, so every occurrence
+ * of a name shares one String and only the first one is copied out of the input.
+ * <p>
+ * Input is either a String, a {@link Reader} or a {@link ByteBuffer} of UTF-8. A Reader is consumed
+ * through a sliding buffer, so only the characters of the current token have to be held in memory.
+ * A ByteBuffer, usually a mapped file, is scanned in place without being decoded up front.
  **/
 public class Tokenizer {
-    private String inputString;
+    /**
+     * Keywords in a perfect hash table: no two keywords share a {@link #keywordSlot} slot, so a
+     * word is recognised with one hash and one comparison.
+     */
+    private static final String[] KEYWORDS = new String[32];
+    private static final TokenType[] KEYWORD_TYPES = new TokenType[32];
+    private static final int MAX_KEYWORD_LENGTH = 7;
+
+    static {
+        keyword("let", TokenType.VariableKeyword);
+        keyword("class", TokenType.ClassKeyword);
+        keyword("extends", TokenType.ExtendsKeyword);
+        keyword("super", TokenType.SuperKeyword);
+        keyword("new", TokenType.NewKeyword);
+        keyword("this", TokenType.ThisKeyword);
+        keyword("def", TokenType.DefKeyword);
+        keyword("return", TokenType.ReturnKeyword);
+        keyword("true", TokenType.BooleanLiteral);
+        keyword("false", TokenType.BooleanLiteral);
+        keyword("null", TokenType.NullLiteral);
+        keyword("if", TokenType.IfKeyword);
+        keyword("else", TokenType.ElseKeyword);
+        keyword("while", TokenType.WhileKeyword);
+        keyword("do", TokenType.DoKeyword);
+        keyword("for", TokenType.ForKeyword);
+    }
+
+    private CharSource source;
+    private SymbolTable symbols;
     private int cursorPos = 0;
+    private int consumedEnd = 0;
+
+    // The look-ahead token is kept in its compact form: a type plus the offsets of its first
+    // character and of the character just past it. Its text and Token view are created on demand.
+    private TokenType peekedType;
+    private int peekedPos = -1;
+    private int peekedEnd = -1;
+    private String peekedText;
+    private Token peekedToken;
+    private int scanEnd = -1;
 
-    private final Map<String, TokenType> regexToTokenType = new LinkedHashMap<>();
+    private long scanCount = 0;
+    private long consumedTokenCount = 0;
+    private boolean errorStackTraces = true;
+    private boolean timed;
+    private long scanNanos = 0;
 
     public void init(String inputString) {
-        this.inputString = inputString;
-        regexToTokenType.put("^!", TokenType.LogicalNot);
-        regexToTokenType.put("^\\.", TokenType.Dot);
-        regexToTokenType.put("^\\[", TokenType.OpenBracket);
-        regexToTokenType.put("^]", TokenType.CloseBracket);
-        regexToTokenType.put("^let", TokenType.VariableKeyword);
-        regexToTokenType.put("^class", TokenType.ClassKeyword);
-        regexToTokenType.put("^extends", TokenType.ExtendsKeyword);
-        regexToTokenType.put("^super", TokenType.SuperKeyword);
-        regexToTokenType.put("^new", TokenType.NewKeyword);
-        regexToTokenType.put("^this", TokenType.ThisKeyword);
-        regexToTokenType.put("^def", TokenType.DefKeyword);
-        regexToTokenType.put("^return", TokenType.ReturnKeyword);
-        regexToTokenType.put("^&&", TokenType.LogicalANDOperator);
-        regexToTokenType.put("^(\\|){2}", TokenType.LogicalOROperator);
-        regexToTokenType.put("^(true|false)", TokenType.BooleanLiteral);
-        regexToTokenType.put("^null", TokenType.NullLiteral);
-        regexToTokenType.put("^if", TokenType.IfKeyword);
-        regexToTokenType.put("^else", TokenType.ElseKeyword);
-        regexToTokenType.put("^while", TokenType.WhileKeyword);
-        regexToTokenType.put("^do", TokenType.DoKeyword);
-        regexToTokenType.put("^for", TokenType.ForKeyword);
-        regexToTokenType.put("^\\d+", TokenType.NumericLiteral);
-        regexToTokenType.put("^\\w+", TokenType.Identifier);
-        regexToTokenType.put("^\"[^\"]*\"", TokenType.StringLiteral);
-        regexToTokenType.put("^;", TokenType.Semicolon);
-        regexToTokenType.put("^\\{", TokenType.OpenCurlyBracket);
-        regexToTokenType.put("^}", TokenType.CloseCurlyBracket);
-        regexToTokenType.put("^[/*+-]=", TokenType.ComplexAssignment);
-        regexToTokenType.put("^\\+", TokenType.Add);
-        regexToTokenType.put("^\\-", TokenType.Minus);
-        regexToTokenType.put("^\\*", TokenType.Multiply);
-        regexToTokenType.put("^/", TokenType.Divide);
-        regexToTokenType.put("^\\(", TokenType.OpenParenthesis);
-        regexToTokenType.put("^\\)", TokenType.CloseParenthesis);
-        regexToTokenType.put("^[=!]=", TokenType.EqualityOperator);
-        regexToTokenType.put("^=", TokenType.SimpleAssignment);
-        regexToTokenType.put("^,", TokenType.Comma);
-        regexToTokenType.put("^[><]=?", TokenType.RelationalOperator);
+        init(new StringSource(inputString));
+    }
+
+    /**
+     * Tokenizes the characters of {@code inputString} from {@code start} up to {@code end}.
+     * Offsets, including those of syntax errors, stay relative to the start of the whole string.
+     */
+    public void init(String inputString, int start, int end) {
+        Objects.checkFromToIndex(start, end, inputString.length());
+        init(new StringSource(inputString, end));
+        this.cursorPos = start;
+        this.consumedEnd = start;
+    }
+
+    /**
+     * Tokenizes the characters of {@code reader}, which is read lazily as tokens are requested.
+     * The reader is not closed by the tokenizer.
+     */
+    public void init(Reader reader) {
+        init(reader, ReaderSource.DEFAULT_BUFFER_SIZE);
+    }
+
+    public void init(Reader reader, int bufferSize) {
+        init(new ReaderSource(reader, bufferSize));
+    }
+
+    /**
+     * Tokenizes the UTF-8 encoded bytes between the position and the limit of {@code buffer},
+     * scanning them in place. The buffer's position is not changed.
+     */
+    public void init(ByteBuffer buffer) {
+        init(new ByteBufferSource(buffer));
+    }
+
+    private void init(CharSource source) {
+        this.source = source;
+        this.symbols = new SymbolTable();
+        this.cursorPos = 0;
+        this.consumedEnd = 0;
+        clearPeeked();
+        this.scanCount = 0;
+        this.consumedTokenCount = 0;
+        this.scanNanos = 0;
     }
 
     public Token getNextToken() {
         if (isEOF()) return null;
         Token lookAhead = lookAhead();
-        updateCursor(lookAhead);
+        updateCursor();
         return lookAhead;
     }
 
+    /**
+     * Returns the next token as a {@link Token}, without consuming it.
+     * The parser uses {@link #peekType()} and {@link #tokenText()} instead, which don't allocate.
+     */
     public Token lookAhead() {
+        if (peekType() == null) return null;
+        if (peekedToken == null) {
+            peekedToken = new Token(peekedType, tokenText());
+        }
+        return peekedToken;
+    }
+
+    /**
+     * Returns the type of the next token without consuming it, or null at the end of the input.
+     */
+    public TokenType peekType() {
+        if (isEOF()) return null;
+        if (peekedPos == cursorPos) return peekedType;
+        return scanPeeked(true);
+    }
+
+    /**
+     * Same as {@link #peekType()}, but returns null instead of throwing if no token starts at the
+     * cursor; {@link #skipCharacter()} then steps over the offending character.
+     */
+    public TokenType tryPeekType() {
         if (isEOF()) return null;
+        if (peekedPos == cursorPos) return peekedType;
+        return scanPeeked(false);
+    }
 
-        while (isNewLine() || isWhiteSpace()) {
-            cursorPos += 1;
+    private TokenType scanPeeked(boolean required) {
+        scanCount++;
+        TokenType type;
+        if (timed) {
+            long start = System.nanoTime();
+            type = scanToken(cursorPos);
+            scanNanos += System.nanoTime() - start;
+        } else {
+            type = scanToken(cursorPos);
+        }
+        if (type == null) {
+            if (!required) return null;
+            throw syntaxError("Invalid token: " + source.remainder(cursorPos), null, null);
         }
 
-        String stringToMatch = inputString.substring(cursorPos);
-        for (Map.Entry<String, TokenType> entry : regexToTokenType.entrySet()) {
-            Matcher matcher = Pattern.compile(entry.getKey()).matcher(stringToMatch);
-            if (matcher.find()) {
-                String matchedString = matcher.group();
-                return new Token(entry.getValue(), matchedString);
-            }
+        peekedType = type;
+        peekedPos = cursorPos;
+        peekedEnd = scanEnd;
+        peekedText = null;
+        peekedToken = null;
+        return type;
+    }
+
+    /**
+     * Offset of the first character of the next token. Only valid after {@link #peekType()}.
+     */
+    public int tokenStart() {
+        return peekedPos;
+    }
+
+    /**
+     * Offset just past the last character of the next token. Only valid after {@link #peekType()}.
+     */
+    public int tokenEnd() {
+        return peekedEnd;
+    }
+
+    /**
+     * Offset just past the last consumed token, before any whitespace that follows it.
+     */
+    public int consumedEnd() {
+        return consumedEnd;
+    }
+
+    /**
+     * Returns the text of the next token, or null at the end of the input.
+     * Keywords and punctuation share constant strings; only identifiers and literals are copied out
+     * of the input, and only the first time their text is asked for.
+     */
+    public String tokenText() {
+        if (peekType() == null) return null;
+        if (peekedText == null) {
+            peekedText = switch (peekedType) {
+                case Identifier -> symbols.intern(source, peekedPos, peekedEnd);
+                case NumericLiteral, StringLiteral -> source.text(peekedPos, peekedEnd);
+                default -> lexeme(peekedType, peekedPos, peekedEnd);
+            };
         }
+        return peekedText;
+    }
+
+    /**
+     * Consumes the next token and returns its text, or returns null at the end of the input.
+     */
+    public String getNextTokenText() {
+        String text = tokenText();
+        if (text != null) updateCursor();
+        return text;
+    }
 
-        throw new SyntaxException("Invalid token: " + stringToMatch);
+    /**
+     * Consumes the next token.
+     */
+    public void advance() {
+        peekType();
+        updateCursor();
     }
 
     public void skipNextToken() {
-        updateCursor(lookAhead());
+        advance();
     }
 
     public void eatToken(TokenType tokenType) {
-        Token lookAheadToken = lookAhead();
-        if (tokenType != lookAheadToken.type()) {
-            throw new SyntaxException("Token to be eaten is not the same as the look ahead token");
+        TokenType found = peekType();
+        if (tokenType != found) {
+            throw syntaxError("Token to be eaten is not the same as the look ahead token", tokenType, found);
+        }
+        updateCursor();
+    }
+
+    /**
+     * Skips one character of input, for stepping over a character no token starts with.
+     */
+    public void skipCharacter() {
+        if (isEOF()) return;
+        cursorPos++;
+        clearPeeked();
+        source.release(cursorPos);
+    }
+
+    /**
+     * Whether syntax errors capture a stack trace, true by default. A parse that expects errors
+     * and only reads their position can turn this off to make them cheap.
+     */
+    public void setErrorStackTraces(boolean errorStackTraces) {
+        this.errorStackTraces = errorStackTraces;
+    }
+
+    /**
+     * Creates the exception for a syntax error at the next token: {@code found} where
+     * {@code expected}, or one of several tokens if it is null, should have been.
+     */
+    public SyntaxException syntaxError(String message, TokenType expected, TokenType found) {
+        return new SyntaxException(message, cursorPos, expected, found, errorStackTraces);
+    }
+
+    /**
+     * Tokenizes the rest of the input in one pass into a {@link TokenArray}, without creating a
+     * {@link Token} or a String for any token.
+     *
+     * @throws SyntaxException at the first character no token starts with
+     */
+    public TokenArray tokenizeAll() {
+        TokenArray tokens = new TokenArray(64);
+        while (peekType() != null) {
+            tokens.add(peekedType, peekedPos, peekedEnd);
+            updateCursor();
+        }
+        return tokens.trim();
+    }
+
+    /**
+     * Recognises the token starting at {@code pos} and records where it ends,
+     * or returns null if no token starts there.
+     */
+    private TokenType scanToken(int pos) {
+        int current = source.charAt(pos);
+        switch (current) {
+            case '!' -> {
+                return token(TokenType.LogicalNot, pos + 1);
+            }
+            case '.' -> {
+                return token(TokenType.Dot, pos + 1);
+            }
+            case '[' -> {
+                return token(TokenType.OpenBracket, pos + 1);
+            }
+            case ']' -> {
+                return token(TokenType.CloseBracket, pos + 1);
+            }
+            case ';' -> {
+                return token(TokenType.Semicolon, pos + 1);
+            }
+            case '{' -> {
+                return token(TokenType.OpenCurlyBracket, pos + 1);
+            }
+            case '}' -> {
+                return token(TokenType.CloseCurlyBracket, pos + 1);
+            }
+            case '(' -> {
+                return token(TokenType.OpenParenthesis, pos + 1);
+            }
+            case ')' -> {
+                return token(TokenType.CloseParenthesis, pos + 1);
+            }
+            case ',' -> {
+                return token(TokenType.Comma, pos + 1);
+            }
+            case '&' -> {
+                return charAt(pos + 1) == '&' ? token(TokenType.LogicalANDOperator, pos + 2) : null;
+            }
+            case '|' -> {
+                return charAt(pos + 1) == '|' ? token(TokenType.LogicalOROperator, pos + 2) : null;
+            }
+            case '+' -> {
+                return charAt(pos + 1) == '=' ? token(TokenType.ComplexAssignment, pos + 2) : token(TokenType.Add, pos + 1);
+            }
+            case '-' -> {
+                return charAt(pos + 1) == '=' ? token(TokenType.ComplexAssignment, pos + 2) : token(TokenType.Minus, pos + 1);
+            }
+            case '*' -> {
+                return charAt(pos + 1) == '=' ? token(TokenType.ComplexAssignment, pos + 2) : token(TokenType.Multiply, pos + 1);
+            }
+            case '/' -> {
+                return charAt(pos + 1) == '=' ? token(TokenType.ComplexAssignment, pos + 2) : token(TokenType.Divide, pos + 1);
+            }
+            case '=' -> {
+                return charAt(pos + 1) == '=' ? token(TokenType.EqualityOperator, pos + 2) : token(TokenType.SimpleAssignment, pos + 1);
+            }
+            case '<', '>' -> {
+                return token(TokenType.RelationalOperator, charAt(pos + 1) == '=' ? pos + 2 : pos + 1);
+            }
+            case '"' -> {
+                return stringLiteral(pos);
+            }
+            default -> {
+                if (isDigit(current)) return numericLiteral(pos);
+                if (isWordChar(current)) return word(pos);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * StringLiteral
+     * : " any character except " "
+     **/
+    private TokenType stringLiteral(int start) {
+        int closingQuote = source.indexOf('"', start + 1);
+        if (closingQuote < 0) return null;
+        return token(TokenType.StringLiteral, closingQuote + 1);
+    }
+
+    /**
+     * NumericLiteral
+     * : digit[]
+     **/
+    private TokenType numericLiteral(int start) {
+        int end = start + 1;
+        while (isDigit(charAt(end))) end++;
+        return token(TokenType.NumericLiteral, end);
+    }
+
+    /**
+     * Keyword
+     * | Identifier : word character[]
+     **/
+    private TokenType word(int start) {
+        int end = start + 1;
+        while (isWordChar(charAt(end))) end++;
+
+        int length = end - start;
+        if (length <= MAX_KEYWORD_LENGTH) {
+            int slot = keywordSlot(source.charAt(start), source.charAt(end - 1), length);
+            String keyword = KEYWORDS[slot];
+            if (keyword != null && keyword.length() == length && source.startsWith(keyword, start)) {
+                return token(KEYWORD_TYPES[slot], end);
+            }
         }
-        updateCursor(lookAheadToken);
+        return token(TokenType.Identifier, end);
     }
 
-    private void updateCursor(Token currToken) {
-        cursorPos += currToken.value().length();
+    /**
+     * Records the offset just past the scanned token, which differs from its length in characters
+     * when the source is addressed in bytes.
+     */
+    private TokenType token(TokenType type, int end) {
+        scanEnd = end;
+        return type;
+    }
+
+    /**
+     * Returns the constant text of a keyword, operator or punctuation token.
+     */
+    private String lexeme(TokenType type, int start, int end) {
+        int first = source.charAt(start);
+        return switch (type) {
+            case LogicalNot -> "!";
+            case Dot -> ".";
+            case OpenBracket -> "[";
+            case CloseBracket -> "]";
+            case Semicolon -> ";";
+            case OpenCurlyBracket -> "{";
+            case CloseCurlyBracket -> "}";
+            case OpenParenthesis -> "(";
+            case CloseParenthesis -> ")";
+            case Comma -> ",";
+            case LogicalANDOperator -> "&&";
+            case LogicalOROperator -> "||";
+            case Add -> "+";
+            case Minus -> "-";
+            case Multiply -> "*";
+            case Divide -> "/";
+            case SimpleAssignment -> "=";
+            case EqualityOperator -> "==";
+            case ComplexAssignment -> switch (first) {
+                case '+' -> "+=";
+                case '-' -> "-=";
+                case '*' -> "*=";
+                default -> "/=";
+            };
+            case RelationalOperator -> first == '<'
+                    ? (end - start == 2 ? "<=" : "<")
+                    : (end - start == 2 ? ">=" : ">");
+            default -> KEYWORDS[keywordSlot(first, source.charAt(end - 1), end - start)];
+        };
+    }
+
+    /**
+     * Number of times a token was scanned from the input since {@link #init(String)}.
+     */
+    public long getScanCount() {
+        return scanCount;
+    }
+
+    /**
+     * Number of tokens the cursor has moved past since {@link #init(String)}.
+     */
+    public long getConsumedTokenCount() {
+        return consumedTokenCount;
+    }
+
+    /**
+     * Ratio of scans to consumed tokens. 1.0 means no token was scanned more than once.
+     */
+    public double getScansPerToken() {
+        return consumedTokenCount == 0 ? 0 : (double) scanCount / consumedTokenCount;
+    }
+
+    /**
+     * Whether to time scanning, see {@link #getScanNanos()}. Off by default, as reading the clock
+     * for every token costs about as much as scanning it.
+     */
+    public void setTimed(boolean timed) {
+        this.timed = timed;
+    }
+
+    /**
+     * Time spent scanning tokens since {@link #init(String)}, while {@link #setTimed timed}.
+     */
+    public long getScanNanos() {
+        return scanNanos;
+    }
+
+    /**
+     * Moves the cursor past the token found by the last {@link #peekType()}.
+     */
+    private void updateCursor() {
+        cursorPos = peekedEnd;
+        consumedEnd = peekedEnd;
+        consumedTokenCount++;
+        clearPeeked();
+        source.release(cursorPos);
+    }
+
+    private void clearPeeked() {
+        peekedType = null;
+        peekedPos = -1;
+        peekedEnd = -1;
+        peekedText = null;
+        peekedToken = null;
     }
 
     private boolean isWhiteSpace() {
-        String stringToMatch = inputString.substring(cursorPos);
-        Matcher matcher = Pattern.compile("^\s").matcher(stringToMatch);
-        return matcher.find();
+        return charAt(cursorPos) == ' ';
     }
 
     private boolean isNewLine() {
-        String stringToMatch = inputString.substring(cursorPos);
-        Matcher matcher = Pattern.compile("^\\n").matcher(stringToMatch);
-        return matcher.find();
+        return charAt(cursorPos) == '\n';
     }
 
+    /**
+     * True when only whitespace is left. Leading whitespace is skipped so the cursor rests on the
+     * start of the next token.
+     */
     public boolean isEOF() {
-        return cursorPos > inputString.length() - 1;
+        while (isNewLine() || isWhiteSpace()) {
+            cursorPos += 1;
+        }
+        return charAt(cursorPos) < 0;
+    }
+
+    /**
+     * Returns the character at {@code pos}, or -1 past the end of the input.
+     */
+    private int charAt(int pos) {
+        return source.charAt(pos);
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+    }
+
+    private static void keyword(String keyword, TokenType tokenType) {
+        int slot = keywordSlot(keyword.charAt(0), keyword.charAt(keyword.length() - 1), keyword.length());
+        if (KEYWORDS[slot] != null) {
+            throw new IllegalStateException("Keywords " + KEYWORDS[slot] + " and " + keyword + " share a slot");
+        }
+        KEYWORDS[slot] = keyword;
+        KEYWORD_TYPES[slot] = tokenType;
+    }
+
+    /**
+     * The hash of a word's first and last characters and its length, which is unique per keyword.
+     */
+    private static int keywordSlot(int first, int last, int length) {
+        return (first + 3 * (last + length)) & (KEYWORDS.length - 1);
     }
 
 }
@@ -0,0 +1,84 @@
+import org.example.AST.ASTNode;
+import org.example.AST.ASTNodeType;
+import org.example.AST.ASTVisitor;
+import org.example.AST.ASTWalker;
+import org.example.AST.IdentifierExpressionASTNode;
+import org.example.AST.ProgramASTNode;
+import org.example.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ASTWalkerTest {
+
+    Parser parser = new Parser();
+
+    @Test
+    public void testNodesAreVisitedInOrder() {
+        ProgramASTNode program = parser.parseToAst("if (a) { b = 1; }\ndef f(x) { return x; }");
+        List<String> visits = new ArrayList<>();
+
+        ASTWalker.walk(program, new ASTVisitor() {
+            @Override
+            public boolean enter(ASTNode node, ASTNode parent) {
+                visits.add(node instanceof IdentifierExpressionASTNode identifier ? identifier.name() : node.type().name());
+                return node.type() != ASTNodeType.BlockStatement || parent.type() != ASTNodeType.FunctionDeclaration;
+            }
+
+            @Override
+            public void exit(ASTNode node, ASTNode parent) {
+                visits.add("/" + node.type());
+            }
+        });
+
+        assertEquals(List.of(
+                "Program",
+                "ifStatement", "a", "/Identifier",
+                "BlockStatement", "ExpressionStatement", "AssignmentExpression",
+                "b", "/Identifier", "NumericLiteral", "/NumericLiteral",
+                "/AssignmentExpression", "/ExpressionStatement", "/BlockStatement", "/ifStatement",
+                "FunctionDeclaration", "f", "/Identifier", "x", "/Identifier", "BlockStatement", "/BlockStatement",
+                "/FunctionDeclaration",
+                "/Program"
+        ), visits);
+    }
+
+    @Test
+    public void testParallelWalkVisitsEveryNode() {
+        StringBuilder input = new StringBuilder("let total = 0;\nclass Shape extends Point {\n");
+        for (int i = 0; i < 200; i++) {
+            input.append("  def method").append(i).append("(x, y) { let d = x * ").append(i).append(" + y; return d; }\n");
+        }
+        input.append("}\ndef main() { def inner(a) { return a; } return inner(total); }");
+        ProgramASTNode program = parser.parseToAst(input.toString());
+
+        Counter sequential = new Counter();
+        ASTWalker.walk(program, sequential);
+        Counter parallel = ASTWalker.walkParallel(program, Counter::new, Counter::add);
+
+        assertEquals(3 + 200 * 7 + 6, sequential.identifiers);
+        assertEquals(sequential.nodes, parallel.nodes);
+        assertEquals(sequential.identifiers, parallel.identifiers);
+    }
+
+    static class Counter implements ASTVisitor {
+        int nodes;
+        int identifiers;
+
+        @Override
+        public boolean enter(ASTNode node, ASTNode parent) {
+            nodes++;
+            if (node.type() == ASTNodeType.Identifier) identifiers++;
+            return true;
+        }
+
+        Counter add(Counter other) {
+            nodes += other.nodes;
+            identifiers += other.identifiers;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+import org.example.AST.ASTNodeType;
+import org.example.AST.Operator;
+import org.example.AstArena;
+import org.example.Main;
+import org.example.Parser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AstArenaTest {
+
+    Parser parser = new Parser();
+
+    @Test
+    public void testRecordViewMatchesParseToAst() {
+        String input = Main.SAMPLE_PROGRAM.trim() + "\nfor (let i = 0; i < 3; i += 1) { x = !y; }\nreturn;";
+        AstArena arena = parser.parseToArena(input);
+
+        assertEquals(parser.parseToAst(input), arena.toProgram());
+    }
+
+    @Test
+    public void testNodesAreNavigable() {
+        String input = "if (a < 1) { b = c.d; }\nlet e = \"f\";";
+        AstArena arena = parser.parseToArena(input);
+
+        int root = arena.root();
+        assertEquals(ASTNodeType.Program, arena.kind(root));
+        assertEquals(2, arena.childCount(root));
+
+        int ifStatement = arena.firstChild(root);
+        assertEquals(ASTNodeType.ifStatement, arena.kind(ifStatement));
+        assertEquals("if (a < 1) { b = c.d; }", input.substring(arena.start(ifStatement), arena.end(ifStatement)));
+
+        int test = arena.child(ifStatement, 0);
+        assertEquals(Operator.Less, arena.operator(test));
+        assertEquals("a", arena.text(arena.firstChild(test)));
+        assertNull(arena.kind(arena.child(ifStatement, 2)));
+
+        int block = arena.child(ifStatement, 1);
+        assertEquals("{ b = c.d; }", input.substring(arena.start(block), arena.end(block)));
+        int assignment = arena.firstChild(arena.firstChild(block));
+        int member = arena.child(assignment, 1);
+        assertEquals(ASTNodeType.MemberExpression, arena.kind(member));
+        assertFalse(arena.computed(member));
+        assertEquals(-1, arena.start(member));
+
+        int declaration = arena.firstChild(arena.nextSibling(ifStatement));
+        assertEquals(ASTNodeType.StringLiteral, arena.kind(arena.child(declaration, 1)));
+        assertEquals("\"f\"", arena.text(arena.child(declaration, 1)));
+    }
+}
@@ -0,0 +1,66 @@
+import org.example.Parser;
+import org.example.batch.BatchParser;
+import org.example.batch.BatchResult;
+import org.example.exceptions.SyntaxException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchParserTest {
+
+    @Test
+    public void testResultsInInputOrderWithErrors() {
+        List<String> sources = List.of("x = 1;", "let y = @;", "class A { }", "z * 2;");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<BatchResult> results = new BatchParser(executor, 2).parseSources(sources);
+
+            assertEquals(4, results.size());
+            Parser parser = new Parser();
+            for (int i : new int[]{0, 2, 3}) {
+                assertTrue(results.get(i).isSuccess());
+                assertEquals(parser.parse(sources.get(i)), parser.toJson(results.get(i).program()));
+            }
+            assertFalse(results.get(1).isSuccess());
+            assertNull(results.get(1).program());
+            assertTrue(results.get(1).error() instanceof SyntaxException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testInFlightIsBounded() {
+        AtomicInteger pending = new AtomicInteger();
+        AtomicInteger maxPending = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            BatchParser batchParser = new BatchParser(command -> {
+                maxPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+                executor.execute(command);
+            }, 3);
+
+            List<String> sources = IntStream.range(0, 50).mapToObj(i -> "x = " + i + ";").toList();
+            List<BatchResult> results = new ArrayList<>();
+            batchParser.parseSources(sources.iterator(), result -> {
+                pending.decrementAndGet();
+                results.add(result);
+            });
+
+            assertEquals(50, results.size());
+            assertTrue(maxPending.get() <= 3);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
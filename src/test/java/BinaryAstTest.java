@@ -0,0 +1,66 @@
+import org.example.AST.ProgramASTNode;
+import org.example.AST.StatementASTNode;
+import org.example.Main;
+import org.example.Parser;
+import org.example.binary.BinaryAstReader;
+import org.example.binary.BinaryAstWriter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryAstTest {
+
+    Parser parser = new Parser();
+
+    String input = Main.SAMPLE_PROGRAM.trim()
+            + "\nfor (let i = 0; i < 3; i += 1) { x = !y[i]; }\nlet s = \"été\", n = null;\nreturn;";
+
+    @Test
+    public void testRoundTrip() {
+        ProgramASTNode program = parser.parseToAst(input);
+
+        for (boolean lengthPrefixes : new boolean[]{true, false}) {
+            byte[] bytes = new BinaryAstWriter(lengthPrefixes).write(program);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+            assertEquals(program, new BinaryAstReader(ByteBuffer.wrap(bytes)).read());
+            assertEquals(program, new BinaryAstReader(direct).read());
+            assertEquals(0, direct.position());
+        }
+    }
+
+    @Test
+    public void testSmallerThanJson() {
+        ProgramASTNode program = parser.parseToAst(input);
+        byte[] json = parser.toJson(program).getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new BinaryAstWriter().write(program);
+
+        assertTrue(bytes.length * 5 < json.length, bytes.length + " bytes against " + json.length + " of JSON");
+    }
+
+    @Test
+    public void testSingleStatementIsDecoded() {
+        ProgramASTNode program = parser.parseToAst(input);
+
+        for (boolean lengthPrefixes : new boolean[]{true, false}) {
+            BinaryAstReader reader = new BinaryAstReader(ByteBuffer.wrap(new BinaryAstWriter(lengthPrefixes).write(program)));
+            assertEquals(program.body().size(), reader.statementCount());
+            for (int i = program.body().size() - 1; i >= 0; i--) {
+                StatementASTNode statement = reader.statement(i);
+                assertEquals(program.body().get(i), statement);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsOtherInput() {
+        ByteBuffer json = ByteBuffer.wrap(parser.parse("x = 1;").getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> new BinaryAstReader(json));
+    }
+}
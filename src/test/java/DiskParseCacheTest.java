@@ -0,0 +1,65 @@
+import org.example.Main;
+import org.example.Parser;
+import org.example.cache.DiskParseCache;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DiskParseCacheTest {
+
+    @Test
+    public void testEntriesSurviveANewCacheInstance() throws IOException {
+        Path directory = Files.createTempDirectory("parse-cache");
+        String input = Main.SAMPLE_PROGRAM.trim();
+
+        DiskParseCache cache = new DiskParseCache(directory, 1 << 20);
+        assertEquals(new Parser().parse(input), cache.parse(input));
+        assertEquals(1, cache.stats().missCount());
+
+        DiskParseCache restarted = new DiskParseCache(directory, 1 << 20);
+        assertEquals(1, restarted.stats().entryCount());
+        assertEquals(new Parser().parse(input), restarted.parse(input));
+        assertEquals(1, restarted.stats().hitCount());
+        assertEquals(0, restarted.stats().missCount());
+    }
+
+    @Test
+    public void testStaleTemporaryFilesAreDeleted() throws IOException {
+        Path directory = Files.createTempDirectory("parse-cache");
+        Path stale = Files.createTempFile(directory, "stale.json.gz", ".tmp");
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(1))));
+        Path recent = Files.createTempFile(directory, "recent.json.gz", ".tmp");
+
+        new DiskParseCache(directory, 1 << 20);
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(recent));
+    }
+
+    @Test
+    public void testSizeIsBoundedByEviction() throws IOException {
+        Path directory = Files.createTempDirectory("parse-cache");
+        DiskParseCache cache = new DiskParseCache(directory, 2_000);
+
+        for (int i = 0; i < 100; i++) {
+            cache.parse("let x" + i + " = " + i + " * y;");
+        }
+
+        long size;
+        try (Stream<Path> files = Files.list(directory)) {
+            size = files.mapToLong(file -> file.toFile().length()).sum();
+        }
+        assertTrue(size <= 2_000);
+        assertTrue(cache.stats().evictionCount() > 0);
+        assertEquals(size, cache.stats().weight());
+    }
+}
@@ -0,0 +1,99 @@
+import org.example.AST.ClassDeclarationASTNode;
+import org.example.AST.BlockStatementASTNode;
+import org.example.AST.ProgramASTNode;
+import org.example.IncrementalParse;
+import org.example.IncrementalParser;
+import org.example.Main;
+import org.example.Parser;
+import org.example.exceptions.SyntaxException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IncrementalParserTest {
+
+    IncrementalParser incrementalParser;
+    Parser parser;
+
+    @BeforeEach
+    public void setup() {
+        incrementalParser = new IncrementalParser();
+        parser = new Parser();
+    }
+
+    @Test
+    public void testEditInsideFunctionReusesSiblings() {
+        String input = "let a = 1;\n" + Main.SAMPLE_PROGRAM.trim() + "\nwhile (a < 3) { a += 1; }";
+        IncrementalParse previous = incrementalParser.parse(input);
+        int offset = input.indexOf("x * 2") + 4;
+
+        IncrementalParse edited = incrementalParser.reparse(previous, offset, 1, "20");
+
+        assertEquals(input.replace("x * 2", "x * 20"), edited.text());
+        assertEquals(parser.parseToAst(edited.text()), edited.program());
+        assertTrue(edited.reparsedLength() < 100);
+
+        List<?> body = edited.program().body();
+        assertSame(previous.program().body().get(0), body.get(0));
+        assertSame(previous.program().body().get(2), body.get(2));
+        List<?> members = members(edited.program());
+        List<?> previousMembers = members(previous.program());
+        assertSame(previousMembers.get(1), members.get(1));
+        assertSame(previousMembers.get(2), members.get(2));
+    }
+
+    @Test
+    public void testEditsAcrossBlockBoundariesFallBack() {
+        String input = Main.SAMPLE_PROGRAM.trim();
+        IncrementalParse previous = incrementalParser.parse(input);
+        int offset = input.indexOf("return x * 2;") + "return x * 2;".length();
+
+        IncrementalParse edited = incrementalParser.reparse(previous, offset, 0, " } def other() {");
+        assertEquals(parser.parseToAst(edited.text()), edited.program());
+        assertEquals(4, members(edited.program()).size());
+
+        assertThrows(SyntaxException.class, () -> incrementalParser.reparse(previous, offset, 0, "\""));
+    }
+
+    @Test
+    public void testRandomEditsMatchFullParse() {
+        String[] insertions = {"", "x", " ", "1", "{", "}", "(", ")", ";", "+", "\"", "y = 2;", "{ z; }", "def g() { }"};
+        Random random = new Random(42);
+        IncrementalParse current = incrementalParser.parse(Main.SAMPLE_PROGRAM.trim());
+
+        for (int i = 0; i < 2000; i++) {
+            String text = current.text();
+            int offset = random.nextInt(text.length() + 1);
+            int removedLength = random.nextInt(Math.min(4, text.length() - offset) + 1);
+            String insertedText = insertions[random.nextInt(insertions.length)];
+            String editedText = text.substring(0, offset) + insertedText + text.substring(offset + removedLength);
+
+            ProgramASTNode expected;
+            try {
+                expected = parser.parseToAst(editedText);
+            } catch (SyntaxException | StackOverflowError exception) {
+                Class<? extends Throwable> type = exception.getClass();
+                IncrementalParse base = current;
+                assertThrows(type, () -> incrementalParser.reparse(base, offset, removedLength, insertedText));
+                continue;
+            }
+            current = incrementalParser.reparse(current, offset, removedLength, insertedText);
+            assertEquals(expected, current.program());
+        }
+    }
+
+    private static List<?> members(ProgramASTNode program) {
+        ClassDeclarationASTNode classDeclaration = (ClassDeclarationASTNode) program.body().stream()
+                .filter(statement -> statement instanceof ClassDeclarationASTNode)
+                .findFirst()
+                .orElseThrow();
+        return ((BlockStatementASTNode) classDeclaration.body()).body();
+    }
+}
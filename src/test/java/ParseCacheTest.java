@@ -0,0 +1,50 @@
+import org.example.Main;
+import org.example.Parser;
+import org.example.cache.CacheStats;
+import org.example.cache.ParseCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ParseCacheTest {
+
+    @Test
+    public void testRepeatedInputIsServedFromCache() {
+        ParseCache cache = new ParseCache(1 << 20);
+        String input = Main.SAMPLE_PROGRAM.trim();
+
+        String first = cache.parse(input);
+        String second = cache.parse(new String(input.toCharArray()));
+
+        assertEquals(new Parser().parse(input), first);
+        assertSame(first, second);
+        assertEquals(new CacheStats(1, 1, 0, 1, cache.stats().weight()), cache.stats());
+        assertEquals(0.5, cache.stats().hitRate());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvictedByWeight() {
+        String a = "let a = 1;";
+        String b = "let b = 2;";
+        String c = "let c = 3;";
+        ParseCache cache = new ParseCache(Long.MAX_VALUE);
+        cache.parse(a);
+        long entryWeight = cache.stats().weight();
+
+        cache = new ParseCache(2 * entryWeight);
+        cache.parse(a);
+        cache.parse(b);
+        cache.parse(a);
+        cache.parse(c);
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.evictionCount());
+        assertEquals(2, stats.entryCount());
+        assertEquals(2 * entryWeight, stats.weight());
+
+        cache.parse(a);
+        cache.parse(b);
+        assertEquals(new CacheStats(2, 4, 2, 2, 2 * entryWeight), cache.stats());
+    }
+}
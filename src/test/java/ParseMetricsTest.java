@@ -0,0 +1,70 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.Parser;
+import org.example.metrics.GrammarRule;
+import org.example.metrics.ParseMetrics;
+import org.example.metrics.ParseStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParseMetricsTest {
+
+    String input = "class A { def f(x) { return this.y[x]; } }";
+
+    @Test
+    public void testMetricsAreReported() {
+        List<ParseStatistics> parses = new ArrayList<>();
+        List<Long> serializations = new ArrayList<>();
+        Parser parser = new Parser(new ParseMetrics() {
+            @Override
+            public void parsed(ParseStatistics statistics) {
+                parses.add(statistics);
+            }
+
+            @Override
+            public void serialized(long nanos, long characters) {
+                serializations.add(characters);
+            }
+        });
+
+        String json = parser.parse(input);
+
+        ParseStatistics statistics = parses.get(0);
+        assertEquals(input.length(), statistics.characters());
+        assertEquals(19, statistics.tokens());
+        assertEquals(14, statistics.nodes());
+        assertEquals(2, (long) statistics.ruleCounts().get(GrammarRule.BlockStatement));
+        assertEquals(4, (long) statistics.ruleCounts().get(GrammarRule.MemberExpression));
+        assertEquals(List.of((long) json.length()), serializations);
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws IOException {
+        Path file = Files.createTempFile("parse", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.Parse");
+            recording.enable("org.example.Serialize");
+            recording.start();
+            new Parser().parse(input);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent parse = events.stream().filter(event -> event.getEventType().getName().equals("org.example.Parse")).findFirst().orElseThrow();
+            assertEquals(19, parse.getLong("tokens"));
+            assertTrue(parse.getString("ruleCounts").contains("MemberExpression=4"));
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("org.example.Serialize")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,8 +1,44 @@
+import org.example.AST.ASTNodeType;
+import org.example.AST.AssignmentExpressionASTNode;
+import org.example.AST.BinaryExpressionASTNode;
+import org.example.AST.BlockStatementASTNode;
+import org.example.AST.ExpressionNode;
+import org.example.AST.ExpressionStatementASTNode;
+import org.example.AST.FunctionDeclarationASTNode;
+import org.example.AST.IdentifierExpressionASTNode;
+import org.example.AST.LazyBlockStatementASTNode;
+import org.example.AST.LiteralASTNode;
+import org.example.AST.Operator;
+import org.example.AST.ProgramASTNode;
+import org.example.AST.StatementASTNode;
+import org.example.Diagnostic;
+import org.example.Main;
+import org.example.ParseResult;
 import org.example.Parser;
+import org.example.exceptions.SyntaxException;
+import org.example.metrics.ParseMetrics;
+import org.example.token.TokenType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ParserTest {
 
@@ -124,4 +160,242 @@ public class ParserTest {
         String expectedAST = "{\"type\":\"Program\",\"body\":[{\"type\":\"VariableStatement\",\"declarations\":[{\"type\":\"VariableDeclaration\",\"id\":{\"type\":\"Identifier\",\"name\":\"x\"},\"init\":{\"type\":\"NumericLiteral\",\"value\":\"6\"}}]}]}";
         assertEquals(generatedAST, expectedAST);
     }
+
+    @Test
+    public void testStreamingInput() {
+        String input = "class A {\n  def f(x) {\n    let s = \"h\u00e9llo\";\n    return x * 2;\n  }\n}\n";
+        String expectedAST = parser.parse(input);
+
+        assertEquals(expectedAST, new Parser().parse(new StringReader(input)));
+        assertEquals(expectedAST, new Parser().parse(
+                Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)))
+        ));
+    }
+
+    @Test
+    public void testParseFile() throws IOException {
+        String input = "def f(x) {\n  let s = \"\u00fcber \u20ac\";\n  return s;\n}\nf;\n";
+        Path file = Files.createTempFile("program", ".txt");
+        try {
+            Files.writeString(file, input, StandardCharsets.UTF_8);
+            assertEquals(parser.parse(input), new Parser().parseFile(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParseToAst() {
+        String input = "x * 3;";
+        ProgramASTNode program = parser.parseToAst(input);
+        ProgramASTNode expectedProgram = new ProgramASTNode(ASTNodeType.Program, List.of(
+                new ExpressionStatementASTNode(ASTNodeType.ExpressionStatement, new BinaryExpressionASTNode(
+                        ASTNodeType.BinaryExpression,
+                        Operator.Multiply,
+                        new IdentifierExpressionASTNode(ASTNodeType.Identifier, "x"),
+                        new LiteralASTNode(ASTNodeType.NumericLiteral, "3")
+                ))
+        ));
+        assertEquals(expectedProgram, program);
+        assertEquals(new Parser().parse(input), parser.toJson(program));
+    }
+
+    @Test
+    public void testSharedParserAcrossThreads() throws Exception {
+        List<String> inputs = List.of(
+                "x = 6 + (8 - y);",
+                "let x = 6;",
+                "class A extends B { def f(a) { return a * 2; } }",
+                "while (i < 10) { i += 1; }"
+        );
+        List<String> expectedASTs = inputs.stream().map(parser::parse).toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String input = inputs.get(i % inputs.size());
+                results.add(executor.submit(() -> parser.parse(input)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(expectedASTs.get(i % inputs.size()), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testStreamingOutput() throws IOException {
+        String input = Main.SAMPLE_PROGRAM.trim();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        parser.parse(new StringReader(input), output);
+        assertEquals(parser.parse(input), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamingOutputStopsAtSyntaxError() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(SyntaxException.class, () -> parser.parse("let a = 1;\nlet b = ;", output));
+        String complete = parser.parse("let a = 1;");
+        assertEquals(complete.substring(0, complete.length() - "]}".length()), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testOperatorPrecedence() {
+        String input = "x = a || b && c == d < e + f * -g - h;";
+        String expectedAST = "{\"type\":\"Program\",\"body\":[{\"type\":\"ExpressionStatement\",\"expression\":{\"type\":\"AssignmentExpression\",\"operator\":\"=\",\"left\":{\"type\":\"Identifier\",\"name\":\"x\"},\"right\":{\"type\":\"LogicalExpression\",\"operator\":\"||\",\"left\":{\"type\":\"Identifier\",\"name\":\"a\"},\"right\":{\"type\":\"LogicalExpression\",\"operator\":\"&&\",\"left\":{\"type\":\"Identifier\",\"name\":\"b\"},\"right\":{\"type\":\"BinaryExpression\",\"operator\":\"==\",\"left\":{\"type\":\"Identifier\",\"name\":\"c\"},\"right\":{\"type\":\"BinaryExpression\",\"operator\":\"<\",\"left\":{\"type\":\"Identifier\",\"name\":\"d\"},\"right\":{\"type\":\"BinaryExpression\",\"operator\":\"Minus\",\"left\":{\"type\":\"BinaryExpression\",\"operator\":\"Add\",\"left\":{\"type\":\"Identifier\",\"name\":\"e\"},\"right\":{\"type\":\"BinaryExpression\",\"operator\":\"Multiply\",\"left\":{\"type\":\"Identifier\",\"name\":\"f\"},\"right\":{\"type\":\"UnaryExpression\",\"operator\":\"-\",\"argument\":{\"type\":\"Identifier\",\"name\":\"g\"}}}},\"right\":{\"type\":\"Identifier\",\"name\":\"h\"}}}}}}}}]}";
+        String generatedAST = parser.parse(input);
+        assertEquals(expectedAST, generatedAST);
+    }
+
+    @Test
+    public void testUnaryOperatorStartsNextStatement() {
+        for (String input : List.of("let y = 3; -x;", "x = 1; +y;", "a; -b;", "return new Point(foo);\n-xs;", "a.xs;\n-true;")) {
+            ProgramASTNode program = parser.parseToAst(input);
+
+            assertEquals(2, program.body().size(), input);
+            ExpressionNode expression = ((ExpressionStatementASTNode) program.body().get(1)).expression();
+            assertEquals(ASTNodeType.UnaryExpression, expression.type(), input);
+            assertEquals(program, parser.parseDeeplyNestedToAst(input), input);
+        }
+    }
+
+    @Test
+    public void testUnexpectedTokenInExpression() {
+        SyntaxException exception = assertThrows(SyntaxException.class, () -> parser.parse("x = ;"));
+        assertEquals("Invalid syntax. Expected an expression but found Semicolon", exception.getMessage());
+    }
+
+    @Test
+    public void testDeeplyNestedParse() {
+        String input = Main.SAMPLE_PROGRAM.trim();
+        assertEquals(parser.parseToAst(input), parser.parseDeeplyNestedToAst(input));
+
+        int depth = 100_000;
+        String nested = "{".repeat(depth) + "x = " + "(".repeat(depth) + "1" + ")".repeat(depth) + ";" + "}".repeat(depth);
+        ProgramASTNode program = parser.parseDeeplyNestedToAst(nested);
+
+        StatementASTNode statement = program.body().get(0);
+        for (int i = 0; i < depth; i++) {
+            statement = ((BlockStatementASTNode) statement).body().get(0);
+        }
+        ExpressionNode expression = ((ExpressionStatementASTNode) statement).expression();
+        assertEquals(new LiteralASTNode(ASTNodeType.NumericLiteral, "1"), ((AssignmentExpressionASTNode) expression).right());
+    }
+
+    @Test
+    public void testInvalidAssignmentTargetIsReportedAlike() {
+        String input = "let a = 1;\na.b = 2;";
+
+        SyntaxException recursive = assertThrows(SyntaxException.class, () -> parser.parseToAst(input));
+        SyntaxException stack = assertThrows(SyntaxException.class, () -> parser.parseDeeplyNestedToAst(input));
+        assertEquals(15, recursive.getOffset());
+        assertEquals(TokenType.Identifier, recursive.getExpected());
+        assertEquals(TokenType.SimpleAssignment, recursive.getFound());
+        assertEquals(recursive.getMessage(), stack.getMessage());
+        assertEquals(recursive.getOffset(), stack.getOffset());
+        assertEquals(recursive.getExpected(), stack.getExpected());
+        assertEquals(recursive.getFound(), stack.getFound());
+    }
+
+    @Test
+    public void testAllSyntaxErrorsAreReported() {
+        String input = "let a = ;\ndef f(x) {\n  x = 1 +;\n  return x;\n}\nif (a { b = 1; }\ny = @;\nlet z = 3;";
+        ParseResult result = parser.parseWithDiagnostics(input);
+
+        assertEquals(List.of(
+                new Diagnostic(8, null, TokenType.Semicolon, "Invalid syntax. Expected an expression but found Semicolon"),
+                new Diagnostic(30, null, TokenType.Semicolon, "Invalid syntax. Expected an expression but found Semicolon"),
+                new Diagnostic(52, TokenType.CloseParenthesis, TokenType.OpenCurlyBracket, "Token to be eaten is not the same as the look ahead token"),
+                new Diagnostic(67, null, null, "Invalid token: @;\nlet z = 3;")
+        ), result.diagnostics());
+        assertEquals(parser.parseToAst("def f(x) {\n  return x;\n}\nlet z = 3;"), result.program());
+    }
+
+    @Test
+    public void testValidProgramHasNoDiagnostics() {
+        String input = Main.SAMPLE_PROGRAM.trim();
+        ParseResult result = parser.parseWithDiagnostics(input);
+
+        assertFalse(result.hasErrors());
+        assertEquals(parser.parseToAst(input), result.program());
+    }
+
+    @Test
+    public void testOutlineParsesBodiesOnDemand() {
+        String input = "def f(x) {\n  if (x) { return x; }\n}\nlet z = 3;";
+        ProgramASTNode outline = parser.parseOutline(input);
+
+        FunctionDeclarationASTNode function = (FunctionDeclarationASTNode) outline.body().get(0);
+        LazyBlockStatementASTNode body = (LazyBlockStatementASTNode) function.body();
+        assertFalse(body.isParsed());
+        assertEquals("{\n  if (x) { return x; }\n}", body.text());
+
+        FunctionDeclarationASTNode parsed = (FunctionDeclarationASTNode) parser.parseToAst(input).body().get(0);
+        assertEquals(parsed.body(), body.block());
+        assertEquals(parser.parse(input), parser.toJson(outline));
+        assertEquals(parser.parse(Main.SAMPLE_PROGRAM), parser.toJson(parser.parseOutline(Main.SAMPLE_PROGRAM)));
+    }
+
+    @Test
+    public void testOutlineDefersErrorsInBodies() {
+        String input = "let q = 1;\nlet r = 2;\ndef f() { x = ; }\nlet z = 3;";
+        ProgramASTNode outline = parser.parseOutline(input);
+        SyntaxException expected = assertThrows(SyntaxException.class, () -> parser.parseToAst(input));
+
+        assertEquals(4, outline.body().size());
+        LazyBlockStatementASTNode body = (LazyBlockStatementASTNode) ((FunctionDeclarationASTNode) outline.body().get(2)).body();
+        SyntaxException exception = assertThrows(SyntaxException.class, body::block);
+        assertEquals(expected.getMessage(), exception.getMessage());
+        assertEquals(expected.getOffset(), exception.getOffset());
+
+        exception = assertThrows(SyntaxException.class, () -> parser.toJson(outline));
+        assertEquals(expected.getMessage(), exception.getMessage());
+        assertEquals(expected.getOffset(), exception.getOffset());
+    }
+
+    @Test
+    public void testMeasuredOutlineLeavesBodiesUnparsed() {
+        Parser measured = new Parser(new ParseMetrics() {
+        });
+        ProgramASTNode outline = measured.parseOutline("def f() { x = ; }\nlet y = 1;");
+
+        LazyBlockStatementASTNode body = (LazyBlockStatementASTNode) ((FunctionDeclarationASTNode) outline.body().get(0)).body();
+        assertFalse(body.isParsed());
+    }
+
+    @Test
+    public void testParallelParseMatchesSequentialParse() {
+        StringBuilder builder = new StringBuilder("let total = 0;\n");
+        for (int i = 0; i < 300; i++) {
+            builder.append("class C").append(i).append(" extends Point {\n")
+                    .append("  def area(x) { if (x > ").append(i).append(") { return x * x; } return this.y; }\n")
+                    .append("}\n")
+                    .append("def f").append(i).append("(a, b) { while (a < b) { a += 1; } return a; }\n")
+                    .append("total += f").append(i).append("(total);\n");
+        }
+        String input = builder.toString();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ProgramASTNode program = parser.parseParallel(input, pool);
+            assertEquals(parser.parseToAst(input), program);
+            assertEquals(parser.parse(input), parser.toJson(program));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelParseThrowsSequentialError() {
+        String input = "def f() { return 1; }\ndef g() { x = ; }\nlet y = @;";
+
+        SyntaxException sequential = assertThrows(SyntaxException.class, () -> parser.parseToAst(input));
+        SyntaxException parallel = assertThrows(SyntaxException.class, () -> parser.parseParallel(input));
+        assertEquals(sequential.getMessage(), parallel.getMessage());
+        assertEquals(sequential.getOffset(), parallel.getOffset());
+    }
 }
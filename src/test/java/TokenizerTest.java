@@ -0,0 +1,169 @@
+import org.example.exceptions.SyntaxException;
+import org.example.Main;
+import org.example.token.Token;
+import org.example.token.TokenArray;
+import org.example.token.TokenType;
+import org.example.token.Tokenizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TokenizerTest {
+
+    Tokenizer tokenizer;
+
+    @BeforeEach
+    public void setup() {
+        tokenizer = new Tokenizer();
+    }
+
+    @Test
+    public void testOperatorTokens() {
+        List<Token> tokens = tokenize("x += 1 <= y && !z || a == \"b c\";");
+        List<Token> expected = List.of(
+                new Token(TokenType.Identifier, "x"),
+                new Token(TokenType.ComplexAssignment, "+="),
+                new Token(TokenType.NumericLiteral, "1"),
+                new Token(TokenType.RelationalOperator, "<="),
+                new Token(TokenType.Identifier, "y"),
+                new Token(TokenType.LogicalANDOperator, "&&"),
+                new Token(TokenType.LogicalNot, "!"),
+                new Token(TokenType.Identifier, "z"),
+                new Token(TokenType.LogicalOROperator, "||"),
+                new Token(TokenType.Identifier, "a"),
+                new Token(TokenType.EqualityOperator, "=="),
+                new Token(TokenType.StringLiteral, "\"b c\""),
+                new Token(TokenType.Semicolon, ";")
+        );
+        assertEquals(expected, tokens);
+    }
+
+    @Test
+    public void testKeywordTokens() {
+        List<Token> tokens = tokenize("class A extends B {\n def f() { return new A(this, super, null, true); }\n}");
+        List<TokenType> expected = List.of(
+                TokenType.ClassKeyword, TokenType.Identifier, TokenType.ExtendsKeyword, TokenType.Identifier,
+                TokenType.OpenCurlyBracket, TokenType.DefKeyword, TokenType.Identifier, TokenType.OpenParenthesis,
+                TokenType.CloseParenthesis, TokenType.OpenCurlyBracket, TokenType.ReturnKeyword, TokenType.NewKeyword,
+                TokenType.Identifier, TokenType.OpenParenthesis, TokenType.ThisKeyword, TokenType.Comma,
+                TokenType.SuperKeyword, TokenType.Comma, TokenType.NullLiteral, TokenType.Comma,
+                TokenType.BooleanLiteral, TokenType.CloseParenthesis, TokenType.Semicolon, TokenType.CloseCurlyBracket,
+                TokenType.CloseCurlyBracket
+        );
+        assertEquals(expected, tokens.stream().map(Token::type).toList());
+    }
+
+    @Test
+    public void testInvalidToken() {
+        tokenizer.init("x @ y");
+        tokenizer.getNextToken();
+        SyntaxException exception = assertThrows(SyntaxException.class, () -> tokenizer.getNextToken());
+        assertEquals("Invalid token: @ y", exception.getMessage());
+    }
+
+    @Test
+    public void testLookAheadScansEachTokenOnce() {
+        tokenizer.init("let x = y.z[0];");
+        while (!tokenizer.isEOF()) {
+            tokenizer.lookAhead();
+            tokenizer.lookAhead();
+            tokenizer.eatToken(tokenizer.lookAhead().type());
+        }
+        assertEquals(10, tokenizer.getConsumedTokenCount());
+        assertEquals(1.0, tokenizer.getScansPerToken());
+    }
+
+    @Test
+    public void testReaderInputWithSmallBuffer() {
+        String input = "let s = \"a string literal longer than the buffer\";\nwhile (i < s.length) { i += 1; }\n";
+        List<Token> expected = tokenize(input);
+
+        tokenizer.init(new StringReader(input), 4);
+        assertEquals(expected, drain());
+    }
+
+    @Test
+    public void testCompactLookAhead() {
+        tokenizer.init("let abc <= 10;");
+
+        assertEquals(TokenType.VariableKeyword, tokenizer.peekType());
+        assertEquals(0, tokenizer.tokenStart());
+        assertEquals(3, tokenizer.tokenEnd());
+        assertSame("let", tokenizer.tokenText());
+        tokenizer.advance();
+
+        assertEquals(TokenType.Identifier, tokenizer.peekType());
+        assertEquals(4, tokenizer.tokenStart());
+        assertEquals(7, tokenizer.tokenEnd());
+        assertEquals("abc", tokenizer.getNextTokenText());
+
+        assertSame("<=", tokenizer.getNextTokenText());
+        assertEquals("10", tokenizer.getNextTokenText());
+        assertSame(";", tokenizer.getNextTokenText());
+        assertNull(tokenizer.peekType());
+        assertNull(tokenizer.getNextTokenText());
+    }
+
+    @Test
+    public void testKeywordPrefixedIdentifiers() {
+        List<Token> tokens = tokenize("letter classic iffy do dog");
+        List<Token> expected = List.of(
+                new Token(TokenType.Identifier, "letter"),
+                new Token(TokenType.Identifier, "classic"),
+                new Token(TokenType.Identifier, "iffy"),
+                new Token(TokenType.DoKeyword, "do"),
+                new Token(TokenType.Identifier, "dog")
+        );
+        assertEquals(expected, tokens);
+    }
+
+    @Test
+    public void testIdentifiersAreInterned() {
+        tokenizer.init("console.log(x); console.log(x + 1);");
+        List<String> names = new ArrayList<>();
+        while (!tokenizer.isEOF()) {
+            if (tokenizer.peekType() == TokenType.Identifier) names.add(tokenizer.tokenText());
+            tokenizer.advance();
+        }
+
+        assertEquals(List.of("console", "log", "x", "console", "log", "x"), names);
+        assertSame(names.get(0), names.get(3));
+        assertSame(names.get(1), names.get(4));
+        assertSame(names.get(2), names.get(5));
+    }
+
+    @Test
+    public void testTokenizeAll() {
+        String input = Main.SAMPLE_PROGRAM.trim();
+        List<Token> tokens = tokenize(input);
+        TokenArray array = TokenArray.of(input);
+
+        assertEquals(tokens.size(), array.size());
+        for (int i = 0; i < array.size(); i++) {
+            assertEquals(tokens.get(i), new Token(array.type(i), input.substring(array.start(i), array.end(i))));
+        }
+        long identifiers = tokens.stream().filter(token -> token.type() == TokenType.Identifier).count();
+        assertEquals(identifiers, array.indexes().parallel().filter(i -> array.type(i) == TokenType.Identifier).count());
+    }
+
+    private List<Token> tokenize(String input) {
+        tokenizer.init(input);
+        return drain();
+    }
+
+    private List<Token> drain() {
+        List<Token> tokens = new ArrayList<>();
+        while (!tokenizer.isEOF()) {
+            tokens.add(tokenizer.getNextToken());
+        }
+        return tokens;
+    }
+}